@@ -0,0 +1,126 @@
+package com.example.ecommerce.cart;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class AbandonedCartSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+    private static final String DELETE_ITEMS_SQL =
+            "delete from cart_items where id in (select ci.id from cart_items ci join carts c on c.id = ci.cart_id " +
+                    "where c.updated_at < ? limit ?)";
+    private static final String DELETE_CARTS_SQL =
+            "delete from carts where id in (select c.id from carts c where c.updated_at < ? " +
+                    "and not exists (select 1 from cart_items ci where ci.cart_id = c.id) limit ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${cart.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cart.sweeper.idle-days:30}")
+    private int idleDays;
+
+    @Value("${cart.sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${cart.sweeper.pause:200ms}")
+    private Duration pause;
+
+    @Value("${cart.sweeper.max-duration:30m}")
+    private Duration maxDuration;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong itemsDeleted = new AtomicLong();
+    private final AtomicLong cartsDeleted = new AtomicLong();
+    private volatile LocalDateTime lastRun;
+    private volatile long lastDurationMillis;
+
+    @Scheduled(cron = "${cart.sweeper.cron:0 30 3 * * *}")
+    public void sweep() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(idleDays);
+        long items = 0;
+        long carts = 0;
+        try {
+            int deleted;
+            while ((deleted = deleteChunk(DELETE_ITEMS_SQL, cutoff)) > 0) {
+                items += deleted;
+                itemsDeleted.addAndGet(deleted);
+                if (!pause(deadline)) {
+                    break;
+                }
+            }
+            while (System.nanoTime() < deadline && (deleted = deleteChunk(DELETE_CARTS_SQL, cutoff)) > 0) {
+                carts += deleted;
+                cartsDeleted.addAndGet(deleted);
+                if (!pause(deadline)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Очистка брошенных корзин прервана: {}", e.getMessage());
+        } finally {
+            runs.incrementAndGet();
+            lastRun = LocalDateTime.now();
+            lastDurationMillis = (System.nanoTime() - started) / 1_000_000;
+            running.set(false);
+        }
+        logger.info("Очистка брошенных корзин: удалено {} позиций и {} корзин за {} мс",
+                items, carts, lastDurationMillis);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("running", running.get());
+        result.put("runs", runs.get());
+        result.put("itemsDeleted", itemsDeleted.get());
+        result.put("cartsDeleted", cartsDeleted.get());
+        result.put("lastRun", lastRun == null ? null : lastRun.toString());
+        result.put("lastDurationMs", lastDurationMillis);
+        return result;
+    }
+
+    private int deleteChunk(String sql, LocalDateTime cutoff) {
+        Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(sql, cutoff, chunkSize));
+        return deleted == null ? 0 : deleted;
+    }
+
+    private boolean pause(long deadline) {
+        if (System.nanoTime() >= deadline) {
+            return false;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
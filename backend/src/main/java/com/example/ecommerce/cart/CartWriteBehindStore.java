@@ -0,0 +1,384 @@
+package com.example.ecommerce.cart;
+
+import com.example.ecommerce.catalog.ProductCache;
+import com.example.ecommerce.model.Cart;
+import com.example.ecommerce.model.CartItem;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.CartRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Component
+public class CartWriteBehindStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartWriteBehindStore.class);
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final long flushDelayNanos;
+    private final int maxPending;
+    private final long maxCarts;
+    private final long idleTimeoutNanos;
+    private final Map<Long, CartState> states = new ConcurrentHashMap<>();
+
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CartWriteBehindStore(@Value("${cart.write-behind.enabled:false}") boolean enabled,
+                                @Value("${cart.write-behind.flush-delay:2s}") Duration flushDelay,
+                                @Value("${cart.write-behind.max-pending:20}") int maxPending,
+                                @Value("${cart.write-behind.max-carts:10000}") long maxCarts,
+                                @Value("${cart.write-behind.idle-timeout:30m}") Duration idleTimeout) {
+        this.enabled = enabled;
+        this.flushDelayNanos = flushDelay.toNanos();
+        this.maxPending = maxPending;
+        this.maxCarts = maxCarts;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Cart view(User user) {
+        CartState state = state(user.getId());
+        synchronized (state) {
+            Cart cart = new Cart(user);
+            cart.setId(state.cartId);
+            for (Map.Entry<Long, Integer> entry : state.items.entrySet()) {
+                productCache.find(entry.getKey()).ifPresent(product -> {
+                    CartItem item = new CartItem(cart, product, entry.getValue());
+                    item.setUnitPrice(state.unitPrices.get(entry.getKey()));
+                    cart.getCartItems().add(item);
+                });
+            }
+            return cart;
+        }
+    }
+
+    public void add(User user, Long productId, int quantity) {
+        mutate(user.getId(), items -> items.merge(productId, quantity, Integer::sum));
+    }
+
+    public void update(User user, Long productId, int quantity) {
+        mutate(user.getId(), items -> {
+            if (!items.containsKey(productId)) {
+                throw new RuntimeException("Товар не найден в корзине");
+            }
+            items.put(productId, quantity);
+        });
+    }
+
+    public void remove(User user, Long productId) {
+        mutate(user.getId(), items -> items.remove(productId));
+    }
+
+    public void clear(User user) {
+        mutate(user.getId(), Map::clear);
+    }
+
+    public void apply(User user, Consumer<Map<Long, Integer>> operations) {
+        mutate(user.getId(), items -> {
+            Map<Long, Integer> next = new LinkedHashMap<>(items);
+            operations.accept(next);
+            items.clear();
+            items.putAll(next);
+        });
+    }
+
+    public void flush(Long userId) {
+        CartState state = states.get(userId);
+        if (state == null) {
+            return;
+        }
+        try {
+            flushState(state);
+        } catch (RuntimeException e) {
+            flushFailures.incrementAndGet();
+            throw new RuntimeException("Не удалось сохранить корзину, повторите попытку", e);
+        }
+    }
+
+    public void forget(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            discard(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                discard(userId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval:1000}")
+    public void flushDue() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        List<CartState> clean = new ArrayList<>();
+        for (CartState state : states.values()) {
+            if (state.dirty) {
+                if (now - state.dirtySince >= flushDelayNanos) {
+                    tryFlush(state);
+                }
+            } else if (now - state.lastAccess >= idleTimeoutNanos) {
+                evict(state);
+            } else {
+                clean.add(state);
+            }
+        }
+        if (states.size() > maxCarts) {
+            clean.sort(Comparator.comparingLong(state -> state.lastAccess));
+            for (CartState state : clean) {
+                if (states.size() <= maxCarts) {
+                    break;
+                }
+                evict(state);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            boolean failed = false;
+            for (CartState state : states.values()) {
+                failed |= !tryFlush(state);
+            }
+            if (!failed) {
+                return;
+            }
+        }
+        for (CartState state : states.values()) {
+            synchronized (state) {
+                if (state.dirty) {
+                    logger.error("Корзина пользователя {} не сохранена при остановке: {}", state.userId, state.items);
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("carts", states.size());
+        result.put("mutations", mutations.get());
+        result.put("flushes", flushes.get());
+        result.put("flushFailures", flushFailures.get());
+        result.put("evictions", evictions.get());
+        return result;
+    }
+
+    private CartState state(Long userId) {
+        CartState state = states.get(userId);
+        if (state == null) {
+            CartState loaded = load(userId);
+            state = states.putIfAbsent(userId, loaded);
+            if (state == null) {
+                state = loaded;
+            }
+        }
+        state.lastAccess = System.nanoTime();
+        return state;
+    }
+
+    private CartState load(Long userId) {
+        CartState state = new CartState(userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = cartRepository.findByUser(userRepository.getReferenceById(userId));
+            if (cart != null) {
+                state.cartId = cart.getId();
+                for (CartItem item : cart.getCartItems()) {
+                    state.items.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+                    state.flushed.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+                    if (item.getUnitPrice() != null) {
+                        state.unitPrices.put(item.getProduct().getId(), item.getUnitPrice());
+                    }
+                }
+            }
+        });
+        return state;
+    }
+
+    private void mutate(Long userId, Consumer<Map<Long, Integer>> mutation) {
+        while (true) {
+            CartState state = state(userId);
+            synchronized (state) {
+                if (state.evicted) {
+                    continue;
+                }
+                mutation.accept(state.items);
+                mutated(state);
+                return;
+            }
+        }
+    }
+
+    private void mutated(CartState state) {
+        mutations.incrementAndGet();
+        state.unitPrices.keySet().retainAll(state.items.keySet());
+        for (Long productId : state.items.keySet()) {
+            if (!state.unitPrices.containsKey(productId)) {
+                productCache.find(productId).ifPresent(product -> state.unitPrices.put(productId, product.getPrice()));
+            }
+        }
+        if (!state.dirty) {
+            state.dirty = true;
+            state.dirtySince = System.nanoTime();
+        }
+        if (++state.pending >= maxPending) {
+            tryFlush(state);
+        }
+    }
+
+    private boolean tryFlush(CartState state) {
+        try {
+            flushState(state);
+            return true;
+        } catch (RuntimeException e) {
+            flushFailures.incrementAndGet();
+            logger.warn("Не удалось сохранить корзину пользователя {}: {}", state.userId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void flushState(CartState state) {
+        synchronized (state) {
+            if (!state.dirty) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> write(state));
+            state.flushed.clear();
+            state.flushed.putAll(state.items);
+            state.dirty = false;
+            state.pending = 0;
+            flushes.incrementAndGet();
+        }
+    }
+
+    private void evict(CartState state) {
+        synchronized (state) {
+            if (state.dirty) {
+                return;
+            }
+            state.evicted = true;
+            if (states.remove(state.userId, state)) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void discard(Long userId) {
+        CartState state = states.get(userId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (!state.dirty) {
+                state.evicted = true;
+                states.remove(userId, state);
+                return;
+            }
+            state.items.entrySet().removeIf(entry -> entry.getValue().equals(state.flushed.get(entry.getKey())));
+            state.unitPrices.keySet().retainAll(state.items.keySet());
+            state.flushed.clear();
+        }
+    }
+
+    private void write(CartState state) {
+        User user = userRepository.getReferenceById(state.userId);
+        Cart cart = cartRepository.findByUser(user);
+        if (cart == null) {
+            cart = new Cart(user);
+        }
+        cart.setUpdatedAt(LocalDateTime.now());
+        state.items.keySet().removeIf(productId -> productCache.find(productId).isEmpty());
+
+        Map<Long, CartItem> existing = new HashMap<>();
+        for (CartItem item : cart.getCartItems()) {
+            existing.put(item.getProduct().getId(), item);
+        }
+        cart.getCartItems().removeIf(item -> !state.items.containsKey(item.getProduct().getId()));
+        for (Map.Entry<Long, Integer> entry : state.items.entrySet()) {
+            CartItem item = existing.get(entry.getKey());
+            if (item != null) {
+                item.setQuantity(entry.getValue());
+            } else {
+                item = new CartItem(cart, productRepository.getReferenceById(entry.getKey()), entry.getValue());
+                item.setUnitPrice(state.unitPrices.get(entry.getKey()));
+                cart.getCartItems().add(item);
+            }
+        }
+        state.cartId = cartRepository.save(cart).getId();
+    }
+
+    private static final class CartState {
+        private final Long userId;
+        private final Map<Long, Integer> items = new LinkedHashMap<>();
+        private final Map<Long, BigDecimal> unitPrices = new HashMap<>();
+        private final Map<Long, Integer> flushed = new HashMap<>();
+        private Long cartId;
+        private volatile boolean dirty;
+        private volatile long dirtySince;
+        private volatile long lastAccess;
+        private int pending;
+        private boolean evicted;
+
+        private CartState(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
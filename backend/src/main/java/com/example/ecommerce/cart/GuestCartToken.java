@@ -0,0 +1,152 @@
+package com.example.ecommerce.cart;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class GuestCartToken {
+
+    public static final String HEADER = "X-Guest-Cart";
+
+    private static final int FORMAT = 1;
+    private static final int MAC_LENGTH = 16;
+    private static final int MAX_TOKEN_LENGTH = 4096;
+    private static final byte[] CONTEXT = "guest-cart".getBytes(StandardCharsets.US_ASCII);
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${cart.guest.ttl:30d}")
+    private Duration ttl;
+
+    @Value("${cart.guest.max-items:50}")
+    private int maxItems;
+
+    public String encode(Map<Long, Integer> items) {
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("В корзине гостя не более " + maxItems + " товаров");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + items.size() * 6);
+        out.write(FORMAT);
+        writeVarint(out, (System.currentTimeMillis() + ttl.toMillis()) / 60_000);
+        writeVarint(out, items.size());
+        for (Map.Entry<Long, Integer> entry : items.entrySet()) {
+            writeVarint(out, entry.getKey());
+            writeVarint(out, entry.getValue());
+        }
+        byte[] payload = out.toByteArray();
+        byte[] token = Arrays.copyOf(payload, payload.length + MAC_LENGTH);
+        System.arraycopy(sign(payload), 0, token, payload.length, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    public Map<Long, Integer> decode(String token) {
+        Map<Long, Integer> items = new LinkedHashMap<>();
+        if (token == null || token.isBlank()) {
+            return items;
+        }
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Недействительная корзина гостя");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Недействительная корзина гостя");
+        }
+        if (bytes.length <= MAC_LENGTH) {
+            throw new IllegalArgumentException("Недействительная корзина гостя");
+        }
+        byte[] payload = Arrays.copyOf(bytes, bytes.length - MAC_LENGTH);
+        byte[] mac = Arrays.copyOfRange(bytes, payload.length, bytes.length);
+        if (!MessageDigest.isEqual(mac, Arrays.copyOf(sign(payload), MAC_LENGTH))) {
+            throw new IllegalArgumentException("Недействительная корзина гостя");
+        }
+
+        Reader reader = new Reader(payload);
+        if (reader.readVarint() != FORMAT) {
+            throw new IllegalArgumentException("Недействительная корзина гостя");
+        }
+        if (reader.readVarint() * 60_000 < System.currentTimeMillis()) {
+            throw new IllegalArgumentException("Срок действия корзины гостя истек");
+        }
+        long count = reader.readVarint();
+        if (count > maxItems) {
+            throw new IllegalArgumentException("Недействительная корзина гостя");
+        }
+        for (long i = 0; i < count; i++) {
+            long productId = reader.readVarint();
+            long quantity = reader.readVarint();
+            if (quantity <= 0 || quantity > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Недействительная корзина гостя");
+            }
+            items.merge(productId, (int) quantity, Integer::sum);
+        }
+        if (!reader.isDone()) {
+            throw new IllegalArgumentException("Недействительная корзина гостя");
+        }
+        return items;
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            byte[] key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)).getEncoded();
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            mac.update(CONTEXT);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Не удалось подписать корзину гостя", e);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= bytes.length) {
+                    throw new IllegalArgumentException("Недействительная корзина гостя");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Недействительная корзина гостя");
+        }
+
+        private boolean isDone() {
+            return position == bytes.length;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ecommerce.catalog;
+
+import com.example.ecommerce.controller.ProductController;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+@ControllerAdvice(assignableTypes = ProductController.class)
+public class CatalogCacheHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String ETAG_ATTRIBUTE = CatalogCacheHeadersAdvice.class.getName() + ".etag";
+
+    @Autowired
+    private CatalogCachePolicy cachePolicy;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+        Object etag = servletRequest.getServletRequest().getAttribute(ETAG_ATTRIBUTE);
+        if (etag != null && servletResponse.getServletResponse().getStatus() == HttpServletResponse.SC_OK) {
+            String tag = (String) etag;
+            if ("gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+                tag = CatalogResponseCache.gzipETag(tag);
+            }
+            servletResponse.getServletResponse().setHeader(HttpHeaders.ETAG, tag);
+            response.getHeaders().setCacheControl(cachePolicy.cacheControl());
+        }
+        return body;
+    }
+}
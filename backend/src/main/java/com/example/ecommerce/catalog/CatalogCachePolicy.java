@@ -0,0 +1,34 @@
+package com.example.ecommerce.catalog;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class CatalogCachePolicy {
+
+    @Value("${catalog.http.cache-enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.http.max-age:0s}")
+    private Duration maxAge;
+
+    @Value("${catalog.http.s-max-age:30s}")
+    private Duration sharedMaxAge;
+
+    @Value("${catalog.http.stale-while-revalidate:60s}")
+    private Duration staleWhileRevalidate;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CacheControl cacheControl() {
+        return CacheControl.maxAge(maxAge)
+                .sMaxAge(sharedMaxAge)
+                .staleWhileRevalidate(staleWhileRevalidate)
+                .cachePublic();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.ecommerce.catalog;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class CatalogConditionalInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private CatalogReadModel catalogReadModel;
+
+    @Autowired
+    private CatalogCachePolicy cachePolicy;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!cachePolicy.isEnabled()) {
+            return true;
+        }
+        String etag = catalogReadModel.currentETag();
+        if (etag == null) {
+            return true;
+        }
+        request.setAttribute(CatalogCacheHeadersAdvice.ETAG_ATTRIBUTE, etag);
+        String gzipEtag = CatalogResponseCache.gzipETag(etag);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(gzipEtag)
+                && CatalogResponseCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            etag = gzipEtag;
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cachePolicy.cacheControl().getHeaderValue());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ecommerce.catalog;
+
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.CatalogBulkChangedEvent;
+import com.example.ecommerce.service.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class CatalogReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogReadModel.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        CatalogSnapshot current = snapshot.get();
+        long version = current == null ? 1 : current.getVersion() + 1;
+        CatalogSnapshot next = CatalogSnapshot.of(
+                version, productRepository.findAllWithCategory(), categoryRepository.findAll());
+        snapshot.set(next);
+        logger.info("Снимок каталога v{} загружен: {} товаров", version, next.getProducts().size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+        snapshot.set(event.isDeleted()
+                ? current.withoutProduct(event.getProductId())
+                : current.withProduct(event.getProduct()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        if (isReady()) {
+            reload();
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot.get() != null;
+    }
+
+    public CatalogSnapshot current() {
+        return snapshot.get();
+    }
+
+    public String currentETag() {
+        CatalogSnapshot current = snapshot.get();
+        return current == null ? null : "\"catalog-" + epoch + "-" + current.getVersion() + "\"";
+    }
+}
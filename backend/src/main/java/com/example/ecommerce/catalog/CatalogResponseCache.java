@@ -0,0 +1,151 @@
+package com.example.ecommerce.catalog;
+
+import com.example.ecommerce.service.CatalogBulkChangedEvent;
+import com.example.ecommerce.service.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class CatalogResponseCache {
+
+    private static final int MIN_GZIP_SIZE = 1024;
+
+    @Autowired
+    private CatalogReadModel catalogReadModel;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Cache<String, CachedBody> bodies;
+
+    public CatalogResponseCache(@Value("${catalog.response-cache.maximum-weight:32MB}") DataSize maximumWeight) {
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((String key, CachedBody body) -> body.weight())
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        bodies.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        bodies.invalidateAll();
+    }
+
+    public boolean isReady() {
+        return catalogReadModel.isReady();
+    }
+
+    public ResponseEntity<byte[]> respond(String key, String acceptEncoding, Function<CatalogSnapshot, Object> body) {
+        CatalogSnapshot snapshot = catalogReadModel.current();
+        CachedBody cached = bodies.getIfPresent(key);
+        if (cached == null || cached.version != snapshot.getVersion()) {
+            cached = serialize(snapshot.getVersion(), body.apply(snapshot));
+            bodies.put(key, cached);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (cached.gzip != null && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip);
+        }
+        return response.body(cached.identity);
+    }
+
+    private CachedBody serialize(long version, Object body) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(body);
+            byte[] gzip = identity.length >= MIN_GZIP_SIZE ? gzip(identity) : null;
+            return new CachedBody(version, identity, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ошибка сериализации каталога", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    static String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                return quality(tokens) > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality(tokens) > 0;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.length() > 2 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static final class CachedBody {
+        private final long version;
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        private CachedBody(long version, byte[] identity, byte[] gzip) {
+            this.version = version;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        private int weight() {
+            return identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ecommerce.catalog;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Product;
+
+import java.util.*;
+
+public final class CatalogSnapshot {
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+
+    private final long version;
+    private final List<Product> products;
+    private final Map<Long, Product> productsById;
+    private final List<Category> categories;
+    private final PriceIndex priceIndex;
+
+    private CatalogSnapshot(long version, List<Product> products, Map<Long, Product> productsById,
+                            List<Category> categories, PriceIndex priceIndex) {
+        this.version = version;
+        this.products = Collections.unmodifiableList(products);
+        this.productsById = Collections.unmodifiableMap(productsById);
+        this.categories = Collections.unmodifiableList(categories);
+        this.priceIndex = priceIndex;
+    }
+
+    public static CatalogSnapshot of(long version, Collection<Product> products, Collection<Category> categories) {
+        List<Product> sorted = new ArrayList<>(products.size());
+        Map<Long, Product> byId = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            Product copy = product.detachedCopy();
+            sorted.add(copy);
+            byId.put(copy.getId(), copy);
+        }
+        sorted.sort(BY_ID);
+
+        List<Category> categoryCopies = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            Category copy = new Category(category.getName());
+            copy.setId(category.getId());
+            categoryCopies.add(copy);
+        }
+        categoryCopies.sort(Comparator.comparing(Category::getId));
+        return new CatalogSnapshot(version, sorted, byId, categoryCopies, PriceIndex.of(sorted));
+    }
+
+    public CatalogSnapshot withProduct(Product product) {
+        List<Product> nextProducts = new ArrayList<>(products);
+        Map<Long, Product> nextById = new HashMap<>(productsById);
+        Product previous = nextById.put(product.getId(), product);
+        int index = Collections.binarySearch(nextProducts, product, BY_ID);
+        if (previous != null && index >= 0) {
+            nextProducts.set(index, product);
+        } else {
+            nextProducts.add(-index - 1, product);
+        }
+
+        List<Category> nextCategories = categories;
+        Category category = product.getCategory();
+        if (category != null && categories.stream().noneMatch(c -> c.getId().equals(category.getId()))) {
+            nextCategories = new ArrayList<>(categories);
+            nextCategories.add(category);
+            nextCategories.sort(Comparator.comparing(Category::getId));
+        }
+        PriceIndex nextPrices = previous == null ? priceIndex : priceIndex.without(previous.getId(), previous.getPrice());
+        nextPrices = nextPrices.with(product.getId(), product.getPrice());
+        return new CatalogSnapshot(version + 1, nextProducts, nextById, nextCategories, nextPrices);
+    }
+
+    public CatalogSnapshot withoutProduct(Long productId) {
+        Map<Long, Product> nextById = new HashMap<>(productsById);
+        Product removed = nextById.remove(productId);
+        List<Product> nextProducts = new ArrayList<>(products);
+        PriceIndex nextPrices = priceIndex;
+        if (removed != null) {
+            nextProducts.remove(Collections.binarySearch(nextProducts, removed, BY_ID));
+            nextPrices = priceIndex.without(removed.getId(), removed.getPrice());
+        }
+        return new CatalogSnapshot(version + 1, nextProducts, nextById, categories, nextPrices);
+    }
+
+    public long getVersion() { return version; }
+
+    public List<Product> getProducts() { return products; }
+
+    public Optional<Product> findProduct(Long id) { return Optional.ofNullable(productsById.get(id)); }
+
+    public List<Category> getCategories() { return categories; }
+
+    public PriceIndex getPriceIndex() { return priceIndex; }
+}
@@ -0,0 +1,128 @@
+package com.example.ecommerce.catalog;
+
+import com.example.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+
+public final class PriceIndex {
+    private static final PriceIndex EMPTY = new PriceIndex(new long[0], new long[0]);
+
+    private final long[] prices;
+    private final long[] ids;
+
+    private PriceIndex(long[] prices, long[] ids) {
+        this.prices = prices;
+        this.ids = ids;
+    }
+
+    public static PriceIndex of(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return EMPTY;
+        }
+        long[][] entries = new long[products.size()][];
+        int n = 0;
+        for (Product product : products) {
+            entries[n++] = new long[]{toMinor(product.getPrice(), RoundingMode.HALF_UP), product.getId()};
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        long[] prices = new long[n];
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = entries[i][0];
+            ids[i] = entries[i][1];
+        }
+        return new PriceIndex(prices, ids);
+    }
+
+    public PriceIndex with(Long id, BigDecimal price) {
+        long minor = toMinor(price, RoundingMode.HALF_UP);
+        int at = -search(minor, id) - 1;
+        if (at < 0) {
+            return this;
+        }
+        int n = ids.length;
+        long[] nextPrices = new long[n + 1];
+        long[] nextIds = new long[n + 1];
+        System.arraycopy(prices, 0, nextPrices, 0, at);
+        System.arraycopy(ids, 0, nextIds, 0, at);
+        nextPrices[at] = minor;
+        nextIds[at] = id;
+        System.arraycopy(prices, at, nextPrices, at + 1, n - at);
+        System.arraycopy(ids, at, nextIds, at + 1, n - at);
+        return new PriceIndex(nextPrices, nextIds);
+    }
+
+    public PriceIndex without(Long id, BigDecimal price) {
+        int at = search(toMinor(price, RoundingMode.HALF_UP), id);
+        if (at < 0) {
+            return this;
+        }
+        int n = ids.length;
+        long[] nextPrices = new long[n - 1];
+        long[] nextIds = new long[n - 1];
+        System.arraycopy(prices, 0, nextPrices, 0, at);
+        System.arraycopy(ids, 0, nextIds, 0, at);
+        System.arraycopy(prices, at + 1, nextPrices, at, n - at - 1);
+        System.arraycopy(ids, at + 1, nextIds, at, n - at - 1);
+        return new PriceIndex(nextPrices, nextIds);
+    }
+
+    public int size() { return ids.length; }
+
+    public long idAt(int index) { return ids[index]; }
+
+    public long priceAt(int index) { return prices[index]; }
+
+    public int fromPrice(BigDecimal minPrice) {
+        if (minPrice == null) {
+            return 0;
+        }
+        return lowerBound(toMinor(minPrice, RoundingMode.CEILING), Long.MIN_VALUE);
+    }
+
+    public int toPrice(BigDecimal maxPrice) {
+        if (maxPrice == null) {
+            return ids.length;
+        }
+        long minor = toMinor(maxPrice, RoundingMode.FLOOR);
+        return minor == Long.MAX_VALUE ? ids.length : lowerBound(minor + 1, Long.MIN_VALUE);
+    }
+
+    public int after(BigDecimal price, long id) {
+        long minor = toMinor(price, RoundingMode.HALF_UP);
+        return id == Long.MAX_VALUE ? lowerBound(minor + 1, Long.MIN_VALUE) : lowerBound(minor, id + 1);
+    }
+
+    private int search(long price, long id) {
+        int at = lowerBound(price, id);
+        return at < ids.length && prices[at] == price && ids[at] == id ? at : -at - 1;
+    }
+
+    private int lowerBound(long price, long id) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < price || (prices[mid] == price && ids[mid] < id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static long toMinor(BigDecimal price, RoundingMode rounding) {
+        BigDecimal minor = price.movePointRight(2).setScale(0, rounding);
+        if (minor.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (minor.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        return minor.longValue();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.ecommerce.catalog;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.CatalogBulkChangedEvent;
+import com.example.ecommerce.service.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final LoadingCache<Long, Product> cache;
+    private final Map<Long, Long> committedVersions = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCache(ProductRepository productRepository,
+                        @Value("${catalog.product-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${catalog.product-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Product load(Long id) {
+                        return productRepository.findById(id).map(Product::detachedCopy).orElse(null);
+                    }
+                });
+    }
+
+    public Optional<Product> find(Long id) {
+        return Optional.ofNullable(cache.get(id));
+    }
+
+    public Map<Long, Product> findAll(Collection<Long> ids) {
+        Map<Long, Product> result = new HashMap<>(cache.getAllPresent(ids));
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            if (!result.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        long loadedGeneration = generation.get();
+        for (Product product : productRepository.findAllById(missing)) {
+            result.put(product.getId(), admit(product.detachedCopy(), loadedGeneration));
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long version = event.isDeleted() ? Long.valueOf(Long.MAX_VALUE) : event.getProduct().getVersion();
+        cache.asMap().compute(event.getProductId(), (id, current) -> {
+            if (version != null) {
+                committedVersions.merge(id, version, Math::max);
+            }
+            return null;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private Product admit(Product loaded, long loadedGeneration) {
+        Product[] result = {loaded};
+        cache.asMap().compute(loaded.getId(), (id, current) -> {
+            if (current != null) {
+                result[0] = current;
+                return current;
+            }
+            Long committed = committedVersions.get(id);
+            boolean stale = generation.get() != loadedGeneration
+                    || (committed != null && (loaded.getVersion() == null || loaded.getVersion() < committed));
+            return stale ? null : loaded;
+        });
+        return result[0];
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loads", stats.loadCount());
+        result.put("loadFailures", stats.loadFailureCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Configuration
@@ -60,13 +61,15 @@ public class DataInitializer {
                 Category cat4 = categoryRepository.save(new Category("Спорт"));
                 Category cat5 = categoryRepository.save(new Category("Животные"));
     
-                productRepository.save(new Product("Смартфон", "Современный смартфон с отличной камерой", new BigDecimal(29990.0), cat1));
-                productRepository.save(new Product("Ноутбук", "Мощный ноутбук для работы и игр", new BigDecimal(59990.0), cat1));
-                productRepository.save(new Product("Футболка", "Качественная хлопковая футболка", new BigDecimal(990.0), cat2));
-                productRepository.save(new Product("Джинсы", "Стильные джинсы для повседневной носки", new BigDecimal(2490.0), cat2));
-                productRepository.save(new Product("Книга", "Интересная книга по программированию", new BigDecimal(790.0), cat3));
-                productRepository.save(new Product("Велосипед", "Горный велосипед для активного отдыха", new BigDecimal(12990.0), cat4));
-                productRepository.save(new Product("Слон", "Купи слона", new BigDecimal(10000000.0), cat5));
+                productRepository.saveAll(List.of(
+                        new Product("Смартфон", "Современный смартфон с отличной камерой", new BigDecimal(29990.0), cat1),
+                        new Product("Ноутбук", "Мощный ноутбук для работы и игр", new BigDecimal(59990.0), cat1),
+                        new Product("Футболка", "Качественная хлопковая футболка", new BigDecimal(990.0), cat2),
+                        new Product("Джинсы", "Стильные джинсы для повседневной носки", new BigDecimal(2490.0), cat2),
+                        new Product("Книга", "Интересная книга по программированию", new BigDecimal(790.0), cat3),
+                        new Product("Велосипед", "Горный велосипед для активного отдыха", new BigDecimal(12990.0), cat4),
+                        new Product("Слон", "Купи слона", new BigDecimal(10000000.0), cat5)
+                ));
             }
 
             if (userRepository.findByUsername("admin").isEmpty()) {
@@ -61,6 +61,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/health").permitAll() 
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/products/**").permitAll()
+                        .requestMatchers("/api/guest-cart/**").permitAll()
                         .anyRequest().authenticated()
                 );
 
@@ -0,0 +1,21 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.catalog.CatalogConditionalInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CatalogConditionalInterceptor catalogConditionalInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogConditionalInterceptor)
+                .addPathPatterns("/api/products", "/api/products/**")
+                .excludePathPatterns("/api/products/*/related", "/api/products/bestsellers");
+    }
+}
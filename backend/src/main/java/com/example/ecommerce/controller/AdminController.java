@@ -1,18 +1,32 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.cart.AbandonedCartSweeper;
+import com.example.ecommerce.cart.CartWriteBehindStore;
+import com.example.ecommerce.catalog.ProductCache;
+import com.example.ecommerce.concurrency.ConflictRetryAspect;
 import com.example.ecommerce.model.Order;
 import com.example.ecommerce.model.Product;
 import com.example.ecommerce.model.User;
 import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.ProductBulkUpdateService;
+import com.example.ecommerce.service.ProductExportService;
+import com.example.ecommerce.service.ProductImportResult;
+import com.example.ecommerce.service.ProductImportService;
 import com.example.ecommerce.service.ProductService;
 import com.example.ecommerce.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -32,6 +46,27 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private CartWriteBehindStore cartWriteBehindStore;
+
+    @Autowired
+    private ConflictRetryAspect conflictRetryAspect;
+
+    @Autowired
+    private AbandonedCartSweeper abandonedCartSweeper;
+
     @PostMapping("/products")
     public ResponseEntity<?> createProductAdmin(
             @RequestParam String name,
@@ -57,13 +92,7 @@ public class AdminController {
             @RequestParam BigDecimal price,
             @RequestParam Long categoryId) {
         try {
-            Product product = productService.getProductById(id);
-            product.setName(name);
-            product.setDescription(description);
-            product.setPrice(price);
-            product.setCategory(productService.getCategoryById(categoryId));
-
-            product = productService.updateProduct(id, name, description, price);
+            Product product = productService.updateProduct(id, name, description, price, categoryId);
             return ResponseEntity.ok(
                     Map.of("success", true, "product", product, "message", "Товар обновлен")
             );
@@ -73,6 +102,56 @@ public class AdminController {
         }
     }
 
+    @PutMapping("/products/prices")
+    public ResponseEntity<?> updatePricesAdmin(@RequestBody BulkPriceUpdateRequest request) {
+        try {
+            int updated;
+            if (request.getPrices() != null && !request.getPrices().isEmpty()) {
+                Map<Long, BigDecimal> prices = new LinkedHashMap<>();
+                for (BulkPriceUpdateRequest.PriceChange change : request.getPrices()) {
+                    prices.put(change.getId(), change.getPrice());
+                }
+                updated = productBulkUpdateService.setPrices(prices);
+            } else if (request.getCategoryId() != null) {
+                updated = productBulkUpdateService.adjustPricesInCategory(request.getCategoryId(), request.getPercent());
+            } else if (request.getIds() != null && !request.getIds().isEmpty()) {
+                updated = productBulkUpdateService.adjustPrices(request.getIds(), request.getPercent());
+            } else {
+                throw new IllegalArgumentException("Укажите prices либо percent вместе с categoryId или ids");
+            }
+            return ResponseEntity.ok(
+                    Map.of("success", true, "updated", updated, "message", "Цены обновлены")
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка обновления цен: " + e.getMessage()));
+        }
+    }
+
+    @PutMapping("/products/category")
+    public ResponseEntity<?> updateCategoryAdmin(@RequestBody BulkCategoryUpdateRequest request) {
+        try {
+            if (request.getCategoryId() == null) {
+                throw new IllegalArgumentException("Не указана целевая категория");
+            }
+            int updated;
+            if (request.getIds() != null && !request.getIds().isEmpty()) {
+                updated = productBulkUpdateService.moveToCategory(request.getIds(), request.getCategoryId());
+            } else if (request.getFromCategoryId() != null) {
+                updated = productBulkUpdateService.moveAllToCategory(
+                        request.getFromCategoryId(), request.getCategoryId());
+            } else {
+                throw new IllegalArgumentException("Укажите ids или fromCategoryId");
+            }
+            return ResponseEntity.ok(
+                    Map.of("success", true, "updated", updated, "message", "Категория товаров обновлена")
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка смены категории: " + e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/products/{id}")
     public ResponseEntity<?> deleteProductAdmin(@PathVariable Long id) {
         try {
@@ -86,6 +165,47 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/products/export")
+    public ResponseEntity<?> exportProducts(@RequestParam(defaultValue = ProductExportService.NDJSON) String format) {
+        if (!ProductExportService.isSupported(format)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Неподдерживаемый формат выгрузки: " + format));
+        }
+        MediaType contentType = ProductExportService.CSV.equals(format)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        StreamingResponseBody body = out -> productExportService.export(format, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + format + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/products/import")
+    public ResponseEntity<?> importProducts(
+            @RequestParam(defaultValue = ProductExportService.NDJSON) String format,
+            InputStream body) {
+        if (!ProductExportService.isSupported(format)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Неподдерживаемый формат загрузки: " + format));
+        }
+        try {
+            ProductImportResult result = productImportService.importProducts(format, body);
+            return ResponseEntity.ok(
+                    Map.of("success", true,
+                            "received", result.getReceived(),
+                            "imported", result.getImported(),
+                            "failed", result.getFailed(),
+                            "errors", result.getErrors(),
+                            "errorsTruncated", result.isErrorsTruncated(),
+                            "message", "Импорт завершен")
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка импорта товаров: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/orders")
     public ResponseEntity<?> getAllOrders(
             @RequestParam(required = false) String status,
@@ -156,32 +276,7 @@ public class AdminController {
             @PathVariable Long id,
             @RequestBody Map<String, String> deliveryInfo) {
         try {
-            Order order = orderService.getOrderById(id);
-
-            if (deliveryInfo.containsKey("shippingAddress")) {
-                order.setShippingAddress(deliveryInfo.get("shippingAddress"));
-            }
-            if (deliveryInfo.containsKey("recipientPhone")) {
-                order.setRecipientPhone(deliveryInfo.get("recipientPhone"));
-            }
-            if (deliveryInfo.containsKey("recipientName")) {
-                order.setRecipientName(deliveryInfo.get("recipientName"));
-            }
-            if (deliveryInfo.containsKey("deliveryNotes")) {
-                order.setDeliveryNotes(deliveryInfo.get("deliveryNotes"));
-            }
-            if (deliveryInfo.containsKey("shippingMethod")) {
-                order.setShippingMethod(deliveryInfo.get("shippingMethod"));
-            }
-            if (deliveryInfo.containsKey("shippingCost")) {
-                try {
-                    order.setShippingCost(new BigDecimal(deliveryInfo.get("shippingCost")));
-                } catch (NumberFormatException e) {
-                    throw new RuntimeException("Неверный формат стоимости доставки");
-                }
-            }
-
-            orderService.updateOrderStatus(id, order.getStatus());
+            Order order = orderService.updateDeliveryInfo(id, deliveryInfo);
 
             return ResponseEntity.ok(
                     Map.of("success", true, "message", "Информация о доставке обновлена", "order", order)
@@ -233,6 +328,23 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/metrics")
+    public ResponseEntity<?> getMetrics() {
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("productCache", productCache.stats());
+            metrics.put("cartWriteBehind", cartWriteBehindStore.stats());
+            metrics.put("optimisticRetry", conflictRetryAspect.stats());
+            metrics.put("cartSweeper", abandonedCartSweeper.stats());
+            return ResponseEntity.ok(
+                    Map.of("success", true, "metrics", metrics)
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "error", "Ошибка получения метрик: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDashboardStats() {
         try {
@@ -1,9 +1,13 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.cart.GuestCartToken;
 import com.example.ecommerce.model.User;
 import com.example.ecommerce.security.JwtUtils;
 import com.example.ecommerce.service.AuthService;
+import com.example.ecommerce.service.CartService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +27,8 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private AuthService authService;
 
@@ -32,6 +38,12 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private GuestCartToken guestCartToken;
+
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
         try {
@@ -51,7 +63,9 @@ public class AuthController {
     }
 
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(
+            @Valid @RequestBody LoginRequest loginRequest,
+            @RequestHeader(value = GuestCartToken.HEADER, required = false) String guestCart) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
@@ -69,6 +83,13 @@ public class AuthController {
             response.put("roles", user.getAuthorities().stream()
                     .map(GrantedAuthority::getAuthority)
                     .collect(Collectors.toList()));
+            if (guestCart != null && !guestCart.isBlank()) {
+                boolean merged = mergeGuestCart(user, guestCart);
+                response.put("guestCartMerged", merged);
+                if (merged) {
+                    response.put("guestCartMessage", "Корзина гостя перенесена, удалите токен " + GuestCartToken.HEADER);
+                }
+            }
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -77,6 +98,16 @@ public class AuthController {
         }
     }
 
+    private boolean mergeGuestCart(User user, String guestCart) {
+        try {
+            cartService.mergeGuestCart(user, guestCartToken.decode(guestCart));
+            return true;
+        } catch (Exception e) {
+            logger.warn("Не удалось перенести корзину гостя пользователя {}: {}", user.getUsername(), e.getMessage());
+            return false;
+        }
+    }
+
     @GetMapping("/profile")
     public ResponseEntity<?> getProfile(Authentication authentication) {
         try {
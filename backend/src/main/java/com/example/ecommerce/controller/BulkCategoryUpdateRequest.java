@@ -0,0 +1,16 @@
+package com.example.ecommerce.controller;
+
+import java.util.List;
+
+public class BulkCategoryUpdateRequest {
+    private List<Long> ids;
+    private Long fromCategoryId;
+    private Long categoryId;
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    public Long getFromCategoryId() { return fromCategoryId; }
+    public void setFromCategoryId(Long fromCategoryId) { this.fromCategoryId = fromCategoryId; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+}
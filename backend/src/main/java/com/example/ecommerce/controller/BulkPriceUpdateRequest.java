@@ -0,0 +1,30 @@
+package com.example.ecommerce.controller;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class BulkPriceUpdateRequest {
+    private Long categoryId;
+    private List<Long> ids;
+    private BigDecimal percent;
+    private List<PriceChange> prices;
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    public BigDecimal getPercent() { return percent; }
+    public void setPercent(BigDecimal percent) { this.percent = percent; }
+    public List<PriceChange> getPrices() { return prices; }
+    public void setPrices(List<PriceChange> prices) { this.prices = prices; }
+
+    public static class PriceChange {
+        private Long id;
+        private BigDecimal price;
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        public BigDecimal getPrice() { return price; }
+        public void setPrice(BigDecimal price) { this.price = price; }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.service.CartOperation;
+
+import java.util.List;
+
+public class CartBatchRequest {
+    private List<CartOperation> operations;
+
+    public List<CartOperation> getOperations() { return operations; }
+    public void setOperations(List<CartOperation> operations) { this.operations = operations; }
+}
@@ -3,6 +3,7 @@ package com.example.ecommerce.controller;
 import com.example.ecommerce.model.Cart;
 import com.example.ecommerce.model.User;
 import com.example.ecommerce.service.CartService;
+import com.example.ecommerce.service.CartSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +32,18 @@ public class CartController {
         }
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<?> getCartSummary(Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            CartSummary summary = cartService.getSummary(user);
+            return ResponseEntity.ok(Map.of("success", true, "summary", summary));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка получения корзины: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/add")
     public ResponseEntity<?> addToCart(
             Authentication authentication,
@@ -75,6 +88,20 @@ public class CartController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(
+            Authentication authentication,
+            @RequestBody CartBatchRequest request) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            CartSummary summary = cartService.applyBatch(user, request.getOperations());
+            return ResponseEntity.ok(Map.of("success", true, "message", "Корзина обновлена", "summary", summary));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка обновления корзины: " + e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/clear")
     public ResponseEntity<?> clearCart(Authentication authentication) {
         try {
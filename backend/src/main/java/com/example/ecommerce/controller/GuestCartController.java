@@ -0,0 +1,52 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.cart.GuestCartToken;
+import com.example.ecommerce.service.CartService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/guest-cart")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class GuestCartController {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private GuestCartToken guestCartToken;
+
+    @GetMapping
+    public ResponseEntity<?> getGuestCart(
+            @RequestHeader(value = GuestCartToken.HEADER, required = false) String token) {
+        try {
+            Map<Long, Integer> items = guestCartToken.decode(token);
+            return ResponseEntity.ok(Map.of("success", true,
+                    "summary", cartService.getGuestSummary(items),
+                    "token", guestCartToken.encode(items)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка получения корзины: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(
+            @RequestHeader(value = GuestCartToken.HEADER, required = false) String token,
+            @RequestBody CartBatchRequest request) {
+        try {
+            Map<Long, Integer> items = cartService.applyGuestBatch(guestCartToken.decode(token), request.getOperations());
+            return ResponseEntity.ok(Map.of("success", true,
+                    "message", "Корзина обновлена",
+                    "summary", cartService.getGuestSummary(items),
+                    "token", guestCartToken.encode(items)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка обновления корзины: " + e.getMessage()));
+        }
+    }
+}
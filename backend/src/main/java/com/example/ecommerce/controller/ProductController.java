@@ -1,14 +1,23 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.catalog.CatalogResponseCache;
 import com.example.ecommerce.model.Category;
 import com.example.ecommerce.model.Product;
+import com.example.ecommerce.search.Suggestion;
+import com.example.ecommerce.service.Bestseller;
+import com.example.ecommerce.service.BrowseResult;
+import com.example.ecommerce.service.ProductPage;
 import com.example.ecommerce.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -20,23 +29,60 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogResponseCache responseCache;
+
     @GetMapping
-    public ResponseEntity<?> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Product> products = productService.getAllProducts();
+            if (!isPaged(sort, cursor, limit) && minPrice == null && maxPrice == null && responseCache.isReady()) {
+                return responseCache.respond("products", acceptEncoding,
+                        snapshot -> pageResponse(productService.getProductsPage(null, null, null, null, null)));
+            }
+            return ResponseEntity.ok(pageResponse(
+                    productService.getProductsPage(sort, cursor, limit, minPrice, maxPrice)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "error", "Ошибка загрузки товаров: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<?> getProductsByIds(@RequestParam List<Long> ids) {
+        try {
+            List<Product> products = productService.getProductsByIds(ids);
+            List<Long> missing = new ArrayList<>(new LinkedHashSet<>(ids));
+            for (Product product : products) {
+                missing.remove(product.getId());
+            }
             return ResponseEntity.ok(
-                    Map.of("success", true, "products", products)
+                    Map.of("success", true, "products", products, "missing", missing)
             );
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("success", false, "error", "Ошибка загрузки товаров: " + e.getMessage()));
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            Product product = productService.getProductById(id);
+            if (responseCache.isReady()) {
+                return responseCache.respond("product:" + id, acceptEncoding,
+                        snapshot -> Map.of("success", true, "product", productService.getCatalogProduct(snapshot, id)));
+            }
+            Product product = productService.getCatalogProduct(id);
             return ResponseEntity.ok(
                     Map.of("success", true, "product", product)
             );
@@ -46,13 +92,30 @@ public class ProductController {
         }
     }
 
-    @GetMapping("/category/{categoryId}")
-    public ResponseEntity<?> getProductsByCategory(@PathVariable Long categoryId) {
+    @GetMapping("/{id}/related")
+    public ResponseEntity<?> getRelatedProducts(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Product> products = productService.getProductsByCategory(categoryId);
+            List<Product> products = productService.getRelatedProducts(id, limit);
             return ResponseEntity.ok(
                     Map.of("success", true, "products", products)
             );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("success", false, "error", "Товар не найден: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/category/{categoryId}")
+    public ResponseEntity<?> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(pageResponse(
+                    productService.getProductsByCategoryPage(categoryId, sort, cursor, limit)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("success", false, "error", "Ошибка фильтрации по категории: " + e.getMessage()));
@@ -60,21 +123,86 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> searchProducts(@RequestParam String name) {
+    public ResponseEntity<?> searchProducts(
+            @RequestParam String name,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(pageResponse(productService.searchProductsPage(name, sort, cursor, limit)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка поиска: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/browse")
+    public ResponseEntity<?> browseProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Product> products = productService.searchProducts(name);
+            BrowseResult result = productService.browseProducts(
+                    categoryId, minPrice, maxPrice, q, sort, cursor, limit);
+            Map<String, Object> response = pageResponse(result.getPage());
+            response.put("total", result.getTotal());
+            response.put("facets", Map.of(
+                    "categories", result.getCategories(),
+                    "priceBands", result.getPriceBands()
+            ));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", "Ошибка фильтрации товаров: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/bestsellers")
+    public ResponseEntity<?> getBestsellers(
+            @RequestParam(required = false) Long category,
+            @RequestParam(required = false) String window,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<Bestseller> bestsellers = productService.getBestsellers(category, window, limit);
             return ResponseEntity.ok(
-                    Map.of("success", true, "products", products)
+                    Map.of("success", true, "bestsellers", bestsellers)
+            );
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("success", false, "error", "Ошибка загрузки бестселлеров: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<Suggestion> suggestions = productService.suggest(q, limit);
+            return ResponseEntity.ok(
+                    Map.of("success", true, "suggestions", suggestions)
             );
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("success", false, "error", "Ошибка поиска: " + e.getMessage()));
+                    .body(Map.of("success", false, "error", "Ошибка подсказок: " + e.getMessage()));
         }
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<?> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
+            if (responseCache.isReady()) {
+                return responseCache.respond("categories", acceptEncoding,
+                        snapshot -> Map.of("success", true, "categories", snapshot.getCategories()));
+            }
             List<Category> categories = productService.getAllCategories();
             return ResponseEntity.ok(
                     Map.of("success", true, "categories", categories)
@@ -84,4 +212,19 @@ public class ProductController {
                     .body(Map.of("success", false, "error", "Ошибка загрузки категорий: " + e.getMessage()));
         }
     }
+
+    private boolean isPaged(String sort, String cursor, Integer limit) {
+        return sort != null || cursor != null || limit != null;
+    }
+
+    private Map<String, Object> pageResponse(ProductPage page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("products", page.getProducts());
+        response.put("hasNext", page.hasNext());
+        if (page.hasNext()) {
+            response.put("next", page.getNext());
+        }
+        return response;
+    }
 }
\ No newline at end of file
@@ -4,16 +4,22 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = @Index(name = "idx_carts_updated_at", columnList = "updated_at"))
 public class Cart {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    @JsonIgnore
+    private Long version;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -23,21 +29,31 @@ public class Cart {
     @JsonIgnoreProperties("cart")
     private Set<CartItem> cartItems = new HashSet<>();
 
+    @Column(name = "updated_at", columnDefinition = "timestamp default current_timestamp")
+    private LocalDateTime updatedAt;
+
     public Cart() {}
 
     public Cart(User user) {
         this.user = user;
+        this.updatedAt = LocalDateTime.now();
     }
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
     public Set<CartItem> getCartItems() { return cartItems; }
     public void setCartItems(Set<CartItem> cartItems) { this.cartItems = cartItems; }
 
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
     public BigDecimal getTotalPrice() {
         return cartItems.stream()
                 .map(CartItem::getTotalPrice)
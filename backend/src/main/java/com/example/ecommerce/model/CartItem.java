@@ -6,13 +6,20 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = @UniqueConstraint(columnNames = {"cart_id", "product_id"}))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_id_seq")
+    @SequenceGenerator(name = "cart_items_id_seq", sequenceName = "cart_items_id_seq", allocationSize = 50)
+    @Column(columnDefinition = "bigint default nextval('cart_items_id_seq')")
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    @JsonIgnore
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id")
     @JsonIgnore
@@ -24,6 +31,8 @@ public class CartItem {
 
     private Integer quantity;
 
+    private BigDecimal unitPrice;
+
     public CartItem() {}
 
     public CartItem(Cart cart, Product product, Integer quantity) {
@@ -35,6 +44,9 @@ public class CartItem {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public Cart getCart() { return cart; }
     public void setCart(Cart cart) { this.cart = cart; }
 
@@ -44,6 +56,9 @@ public class CartItem {
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
 
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+
     public BigDecimal getTotalPrice() {
         return product.getPrice().multiply(BigDecimal.valueOf(quantity));
     }
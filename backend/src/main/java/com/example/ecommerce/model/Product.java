@@ -1,21 +1,31 @@
 package com.example.ecommerce.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "products")
+@DynamicUpdate
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(name = "products_id_seq", sequenceName = "products_id_seq", allocationSize = 50)
+    @Column(columnDefinition = "bigint default nextval('products_id_seq')")
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    @JsonIgnore
+    private Long version;
+
     @NotBlank
     @Size(max = 100)
     private String name;
@@ -50,6 +60,9 @@ public class Product {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -61,4 +74,16 @@ public class Product {
 
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
+
+    public Product detachedCopy() {
+        Product copy = new Product(name, description, price);
+        copy.setId(id);
+        copy.setVersion(version);
+        if (category != null) {
+            Category categoryCopy = new Category(category.getName());
+            categoryCopy.setId(category.getId());
+            copy.setCategory(categoryCopy);
+        }
+        return copy;
+    }
 }
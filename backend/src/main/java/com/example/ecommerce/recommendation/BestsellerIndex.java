@@ -0,0 +1,413 @@
+package com.example.ecommerce.recommendation;
+
+import com.example.ecommerce.repository.OrderItemRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.CatalogBulkChangedEvent;
+import com.example.ecommerce.service.OrderPlacedEvent;
+import com.example.ecommerce.service.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+@Component
+public class BestsellerIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BestsellerIndex.class);
+    private static final int RING_HOURS = BestsellerWindow.MONTH.getHours();
+    private static final BestsellerWindow[] WINDOWS = BestsellerWindow.values();
+    private static final Ranking EMPTY = new Ranking(new long[0], new long[0]);
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${catalog.bestsellers.top-k:50}")
+    private int topK;
+
+    @SuppressWarnings("unchecked")
+    private final Map<Long, Long>[] buckets = new Map[RING_HOURS];
+    private final long[] bucketHours = new long[RING_HOURS];
+    private final Map<Long, Long>[] windowTotals = newWindowTotals();
+    private final Map<Long, Long> productCategories = new HashMap<>();
+    private final Map<String, Board> boards = new HashMap<>();
+    private final Set<Board> changed = new LinkedHashSet<>();
+    private final List<OrderPlacedEvent> pending = new ArrayList<>();
+    private volatile Map<String, Ranking> rankings = Map.of();
+    private long currentHour = Long.MIN_VALUE;
+    private long loadedUpTo;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public void load() {
+        long now = hourOf(LocalDateTime.now());
+        LocalDateTime since = LocalDateTime.now().minusHours(RING_HOURS);
+        Map<Long, Long> categories = new HashMap<>();
+        for (Object[] row : productRepository.findProductCategoryIds()) {
+            categories.put(((Number) row[0]).longValue(), row[1] == null ? null : ((Number) row[1]).longValue());
+        }
+
+        Map<Long, Long>[] loaded = new Map[RING_HOURS];
+        long[] loadedHours = new long[RING_HOURS];
+        long maxOrderId = 0;
+        long sales = 0;
+        try (Stream<Object[]> rows = orderItemRepository.streamSalesSince(since)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                maxOrderId = Math.max(maxOrderId, ((Number) row[3]).longValue());
+                long productId = ((Number) row[0]).longValue();
+                long quantity = row[2] == null ? 0 : ((Number) row[2]).longValue();
+                long hour = Math.min(hourOf((LocalDateTime) row[1]), now);
+                if (!categories.containsKey(productId) || quantity <= 0 || now - hour >= RING_HOURS) {
+                    continue;
+                }
+                int slot = slot(hour);
+                if (loaded[slot] == null || loadedHours[slot] != hour) {
+                    loaded[slot] = new HashMap<>();
+                    loadedHours[slot] = hour;
+                }
+                loaded[slot].merge(productId, quantity, Long::sum);
+                sales++;
+            }
+        }
+
+        synchronized (this) {
+            reset(now);
+            productCategories.clear();
+            productCategories.putAll(categories);
+            for (int slot = 0; slot < RING_HOURS; slot++) {
+                if (loaded[slot] == null) {
+                    continue;
+                }
+                buckets[slot] = loaded[slot];
+                bucketHours[slot] = loadedHours[slot];
+                long age = now - loadedHours[slot];
+                for (BestsellerWindow window : WINDOWS) {
+                    if (age < window.getHours()) {
+                        loaded[slot].forEach((productId, quantity) ->
+                                windowTotals[window.ordinal()].merge(productId, quantity, Long::sum));
+                    }
+                }
+            }
+            for (int window = 0; window < WINDOWS.length; window++) {
+                for (Long productId : windowTotals[window].keySet()) {
+                    link(window, productId);
+                }
+            }
+            loadedUpTo = maxOrderId;
+            for (OrderPlacedEvent event : pending) {
+                if (event.getOrderId() == null || event.getOrderId() > loadedUpTo) {
+                    apply(event);
+                }
+            }
+            pending.clear();
+            publish();
+            ready = true;
+        }
+        logger.info("Рейтинг бестселлеров построен: {} продаж за {} ч", sales, RING_HOURS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderPlaced(OrderPlacedEvent event) {
+        if (!ready) {
+            pending.add(event);
+            return;
+        }
+        apply(event);
+        publish();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            evict(event.getProductId());
+        } else {
+            categorize(event.getProductId(), event.getProduct().getCategory() == null
+                    ? null : event.getProduct().getCategory().getId());
+        }
+        publish();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        Map<Long, Long> categories = new HashMap<>();
+        for (Object[] row : productRepository.findProductCategoryIds()) {
+            categories.put(((Number) row[0]).longValue(), row[1] == null ? null : ((Number) row[1]).longValue());
+        }
+        synchronized (this) {
+            for (Long productId : new ArrayList<>(productCategories.keySet())) {
+                if (!categories.containsKey(productId)) {
+                    evict(productId);
+                }
+            }
+            categories.forEach(this::categorize);
+            publish();
+        }
+    }
+
+    @Scheduled(cron = "${catalog.bestsellers.roll-cron:0 0 * * * *}")
+    public synchronized void roll() {
+        if (ready && advance(hourOf(LocalDateTime.now()))) {
+            publish();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Ranking top(BestsellerWindow window, Long categoryId) {
+        return rankings.getOrDefault(key(window.ordinal(), categoryId), EMPTY);
+    }
+
+    private void apply(OrderPlacedEvent event) {
+        long hour = hourOf(event.getOrderDate() != null ? event.getOrderDate() : LocalDateTime.now());
+        advance(Math.max(hour, hourOf(LocalDateTime.now())));
+        for (OrderPlacedEvent.Line line : event.getLines()) {
+            if (line.getCategoryId() != null || !productCategories.containsKey(line.getProductId())) {
+                categorize(line.getProductId(), line.getCategoryId());
+            }
+            record(line.getProductId(), hour, line.getQuantity());
+        }
+    }
+
+    private void record(long productId, long hour, long quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        hour = Math.min(hour, currentHour);
+        long age = currentHour - hour;
+        if (age >= RING_HOURS) {
+            return;
+        }
+        int slot = slot(hour);
+        if (bucketHours[slot] != hour || buckets[slot] == null) {
+            buckets[slot] = new HashMap<>();
+            bucketHours[slot] = hour;
+        }
+        buckets[slot].merge(productId, quantity, Long::sum);
+        for (BestsellerWindow window : WINDOWS) {
+            if (age < window.getHours()) {
+                change(window.ordinal(), productId, quantity);
+            }
+        }
+    }
+
+    private void change(int window, long productId, long delta) {
+        unlink(window, productId);
+        windowTotals[window].compute(productId, (id, total) -> {
+            long next = (total == null ? 0 : total) + delta;
+            return next > 0 ? next : null;
+        });
+        link(window, productId);
+    }
+
+    private void categorize(Long productId, Long categoryId) {
+        if (productCategories.containsKey(productId) && Objects.equals(productCategories.get(productId), categoryId)) {
+            return;
+        }
+        for (int window = 0; window < WINDOWS.length; window++) {
+            unlink(window, productId);
+        }
+        productCategories.put(productId, categoryId);
+        for (int window = 0; window < WINDOWS.length; window++) {
+            link(window, productId);
+        }
+    }
+
+    private void evict(Long productId) {
+        for (int window = 0; window < WINDOWS.length; window++) {
+            unlink(window, productId);
+            windowTotals[window].remove(productId);
+        }
+        for (Map<Long, Long> bucket : buckets) {
+            if (bucket != null) {
+                bucket.remove(productId);
+            }
+        }
+        productCategories.remove(productId);
+    }
+
+    private void link(int window, long productId) {
+        if (!windowTotals[window].containsKey(productId)) {
+            return;
+        }
+        board(window, null).add(productId);
+        Long categoryId = productCategories.get(productId);
+        if (categoryId != null) {
+            board(window, categoryId).add(productId);
+        }
+    }
+
+    private void unlink(int window, long productId) {
+        if (!windowTotals[window].containsKey(productId)) {
+            return;
+        }
+        unlink(boards.get(key(window, null)), productId);
+        Long categoryId = productCategories.get(productId);
+        if (categoryId != null) {
+            unlink(boards.get(key(window, categoryId)), productId);
+        }
+    }
+
+    private void unlink(Board board, long productId) {
+        if (board != null && board.remove(productId)) {
+            changed.add(board);
+        }
+    }
+
+    private Board board(int window, Long categoryId) {
+        Board board = boards.computeIfAbsent(key(window, categoryId), key -> new Board(key, windowTotals[window]));
+        changed.add(board);
+        return board;
+    }
+
+    private void publish() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Map<String, Ranking> next = new HashMap<>(rankings);
+        for (Board board : changed) {
+            if (board.order.isEmpty()) {
+                boards.remove(board.key);
+                next.remove(board.key);
+            } else {
+                next.put(board.key, board.top(topK));
+            }
+        }
+        changed.clear();
+        rankings = Map.copyOf(next);
+    }
+
+    private boolean advance(long hour) {
+        if (hour <= currentHour) {
+            return false;
+        }
+        if (hour - currentHour >= RING_HOURS) {
+            reset(hour);
+            return true;
+        }
+        for (long next = currentHour + 1; next <= hour; next++) {
+            for (BestsellerWindow window : WINDOWS) {
+                long expired = next - window.getHours();
+                int slot = slot(expired);
+                if (bucketHours[slot] == expired && buckets[slot] != null) {
+                    buckets[slot].forEach((productId, quantity) -> change(window.ordinal(), productId, -quantity));
+                }
+            }
+            int slot = slot(next);
+            buckets[slot] = null;
+            bucketHours[slot] = next;
+        }
+        currentHour = hour;
+        return true;
+    }
+
+    private void reset(long hour) {
+        Arrays.fill(buckets, null);
+        Arrays.fill(bucketHours, Long.MIN_VALUE);
+        for (Map<Long, Long> totals : windowTotals) {
+            totals.clear();
+        }
+        for (Board board : boards.values()) {
+            board.order.clear();
+            changed.add(board);
+        }
+        currentHour = hour;
+    }
+
+    private static String key(int window, Long categoryId) {
+        return WINDOWS[window].name() + ":" + categoryId;
+    }
+
+    private static int slot(long hour) {
+        return (int) Math.floorMod(hour, (long) RING_HOURS);
+    }
+
+    private static long hourOf(LocalDateTime time) {
+        return Math.floorDiv(time.atZone(ZoneId.systemDefault()).toEpochSecond(), 3600L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Long, Long>[] newWindowTotals() {
+        Map<Long, Long>[] totals = new Map[WINDOWS.length];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new HashMap<>();
+        }
+        return totals;
+    }
+
+    private static final class Board {
+        private final String key;
+        private final Map<Long, Long> totals;
+        private final TreeSet<Long> order;
+
+        private Board(String key, Map<Long, Long> totals) {
+            this.key = key;
+            this.totals = totals;
+            this.order = new TreeSet<>(Comparator.comparingLong((Long id) -> -totals.get(id)).thenComparing(id -> id));
+        }
+
+        private void add(long productId) {
+            order.add(productId);
+        }
+
+        private boolean remove(long productId) {
+            return order.remove(productId);
+        }
+
+        private Ranking top(int limit) {
+            int size = Math.min(limit, order.size());
+            long[] ids = new long[size];
+            long[] sold = new long[size];
+            Iterator<Long> iterator = order.iterator();
+            for (int i = 0; i < size; i++) {
+                ids[i] = iterator.next();
+                sold[i] = totals.get(ids[i]);
+            }
+            return new Ranking(ids, sold);
+        }
+    }
+
+    public static final class Ranking {
+        private final long[] productIds;
+        private final long[] sold;
+
+        private Ranking(long[] productIds, long[] sold) {
+            this.productIds = productIds;
+            this.sold = sold;
+        }
+
+        public int size() { return productIds.length; }
+
+        public long productIdAt(int index) { return productIds[index]; }
+
+        public long soldAt(int index) { return sold[index]; }
+    }
+}
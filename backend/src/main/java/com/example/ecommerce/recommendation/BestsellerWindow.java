@@ -0,0 +1,31 @@
+package com.example.ecommerce.recommendation;
+
+public enum BestsellerWindow {
+    DAY("24h", 24),
+    WEEK("7d", 24 * 7),
+    MONTH("30d", 24 * 30);
+
+    private final String param;
+    private final int hours;
+
+    BestsellerWindow(String param, int hours) {
+        this.param = param;
+        this.hours = hours;
+    }
+
+    public static BestsellerWindow fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return WEEK;
+        }
+        for (BestsellerWindow window : values()) {
+            if (window.param.equalsIgnoreCase(value.trim())) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Некорректное окно: " + value);
+    }
+
+    public String getParam() { return param; }
+
+    public int getHours() { return hours; }
+}
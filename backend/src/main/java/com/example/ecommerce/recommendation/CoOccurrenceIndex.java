@@ -0,0 +1,250 @@
+package com.example.ecommerce.recommendation;
+
+import com.example.ecommerce.repository.OrderItemRepository;
+import com.example.ecommerce.service.OrderPlacedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+@Component
+public class CoOccurrenceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoOccurrenceIndex.class);
+    private static final long[] NONE = new long[0];
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Value("${catalog.related.top-k:20}")
+    private int topK;
+
+    @Value("${catalog.related.parallel-threshold:2048}")
+    private int parallelThreshold;
+
+    private final Map<Long, Map<Long, Integer>> counts = new HashMap<>();
+    private final Map<Long, long[]> top = new ConcurrentHashMap<>();
+    private final List<OrderPlacedEvent> pending = new ArrayList<>();
+    private long loadedUpTo;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long started = System.nanoTime();
+        List<long[]> baskets = new ArrayList<>();
+        long maxOrderId = 0;
+        try (Stream<Object[]> rows = orderItemRepository.streamOrderProductPairs()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            long currentOrder = -1;
+            long[] basket = new long[8];
+            int size = 0;
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                long orderId = ((Number) row[0]).longValue();
+                if (orderId != currentOrder) {
+                    addBasket(baskets, basket, size);
+                    currentOrder = orderId;
+                    maxOrderId = Math.max(maxOrderId, orderId);
+                    size = 0;
+                }
+                if (size == basket.length) {
+                    basket = Arrays.copyOf(basket, size * 2);
+                }
+                basket[size++] = ((Number) row[1]).longValue();
+            }
+            addBasket(baskets, basket, size);
+        }
+
+        Map<Long, Map<Long, Integer>> built = ForkJoinPool.commonPool()
+                .invoke(new CountTask(baskets.toArray(new long[0][]), 0, baskets.size(), parallelThreshold));
+
+        synchronized (this) {
+            counts.clear();
+            counts.putAll(built);
+            top.clear();
+            for (Map.Entry<Long, Map<Long, Integer>> row : counts.entrySet()) {
+                top.put(row.getKey(), topOf(row.getValue()));
+            }
+            loadedUpTo = maxOrderId;
+            for (OrderPlacedEvent event : pending) {
+                if (event.getOrderId() == null || event.getOrderId() > loadedUpTo) {
+                    apply(event);
+                }
+            }
+            pending.clear();
+            ready = true;
+        }
+        logger.info("Индекс сопутствующих товаров построен: {} заказов, {} товаров за {} мс",
+                baskets.size(), counts.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderPlaced(OrderPlacedEvent event) {
+        if (!ready) {
+            pending.add(event);
+            return;
+        }
+        apply(event);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> related(Long productId) {
+        long[] ids = top.getOrDefault(productId, NONE);
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    private void apply(OrderPlacedEvent event) {
+        long[] basket = new long[event.getLines().size()];
+        int size = 0;
+        for (OrderPlacedEvent.Line line : event.getLines()) {
+            basket[size++] = line.getProductId();
+        }
+        basket = distinct(basket, size);
+        for (long a : basket) {
+            Map<Long, Integer> row = counts.computeIfAbsent(a, key -> new HashMap<>());
+            for (long b : basket) {
+                if (a != b) {
+                    row.merge(b, 1, Integer::sum);
+                    promote(a, b, row);
+                }
+            }
+        }
+    }
+
+    private void promote(long product, long candidate, Map<Long, Integer> row) {
+        long[] current = top.getOrDefault(product, NONE);
+        boolean present = false;
+        for (long id : current) {
+            if (id == candidate) {
+                present = true;
+                break;
+            }
+        }
+        long[] next = present ? current.clone() : Arrays.copyOf(current, current.length + 1);
+        if (!present) {
+            next[current.length] = candidate;
+        }
+        Long[] boxed = Arrays.stream(next).boxed().toArray(Long[]::new);
+        Arrays.sort(boxed, (x, y) -> compare(row, x, y));
+        int size = Math.min(boxed.length, topK);
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = boxed[i];
+        }
+        top.put(product, result);
+    }
+
+    private long[] topOf(Map<Long, Integer> row) {
+        Long[] ids = row.keySet().toArray(new Long[0]);
+        Arrays.sort(ids, (x, y) -> compare(row, x, y));
+        int size = Math.min(ids.length, topK);
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = ids[i];
+        }
+        return result;
+    }
+
+    private static int compare(Map<Long, Integer> row, Long x, Long y) {
+        int byCount = Integer.compare(row.getOrDefault(y, 0), row.getOrDefault(x, 0));
+        return byCount != 0 ? byCount : Long.compare(x, y);
+    }
+
+    private static void addBasket(List<long[]> baskets, long[] basket, int size) {
+        if (size > 1) {
+            long[] distinct = distinct(basket, size);
+            if (distinct.length > 1) {
+                baskets.add(distinct);
+            }
+        }
+    }
+
+    private static long[] distinct(long[] values, int size) {
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    private static final class CountTask extends RecursiveTask<Map<Long, Map<Long, Integer>>> {
+        private final long[][] baskets;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private CountTask(long[][] baskets, int from, int to, int threshold) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Map<Long, Map<Long, Integer>> compute() {
+            if (to - from <= threshold) {
+                Map<Long, Map<Long, Integer>> local = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    long[] basket = baskets[i];
+                    for (long a : basket) {
+                        Map<Long, Integer> row = local.computeIfAbsent(a, key -> new HashMap<>());
+                        for (long b : basket) {
+                            if (a != b) {
+                                row.merge(b, 1, Integer::sum);
+                            }
+                        }
+                    }
+                }
+                return local;
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(baskets, from, mid, threshold);
+            left.fork();
+            Map<Long, Map<Long, Integer>> right = new CountTask(baskets, mid, to, threshold).compute();
+            return merge(left.join(), right);
+        }
+
+        private static Map<Long, Map<Long, Integer>> merge(Map<Long, Map<Long, Integer>> a,
+                                                           Map<Long, Map<Long, Integer>> b) {
+            Map<Long, Map<Long, Integer>> target = a.size() >= b.size() ? a : b;
+            Map<Long, Map<Long, Integer>> source = target == a ? b : a;
+            for (Map.Entry<Long, Map<Long, Integer>> row : source.entrySet()) {
+                Map<Long, Integer> existing = target.get(row.getKey());
+                if (existing == null) {
+                    target.put(row.getKey(), row.getValue());
+                } else {
+                    row.getValue().forEach((id, count) -> existing.merge(id, count, Integer::sum));
+                }
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.CartItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into cart_items (cart_id, product_id, quantity, unit_price) " +
+            "values (:cartId, :productId, :quantity, :unitPrice) " +
+            "on conflict (cart_id, product_id) do update set quantity = cart_items.quantity + excluded.quantity, version = cart_items.version + 1",
+            nativeQuery = true)
+    int addQuantity(@Param("cartId") Long cartId, @Param("productId") Long productId,
+                    @Param("quantity") int quantity, @Param("unitPrice") BigDecimal unitPrice);
+
+    @Modifying
+    @Query("delete from CartItem ci where ci.cart.id = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
+
+    @Query("select p.id, p.name, ci.quantity, p.price, ci.unitPrice from CartItem ci join ci.product p " +
+            "where ci.cart.user.id = :userId order by ci.id")
+    List<Object[]> findSummaryRowsByUserId(@Param("userId") Long userId);
+}
@@ -2,10 +2,28 @@ package com.example.ecommerce.repository;
 
 import com.example.ecommerce.model.Cart;
 import com.example.ecommerce.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Cart findByUser(User user);
+
+    @Query("select c.id from Cart c where c.user.id = :userId")
+    Long findIdByUserId(@Param("userId") Long userId);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select c from Cart c where c.user.id = :userId")
+    Cart findForUpdateByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update versioned Cart c set c.updatedAt = :now where c.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,37 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select oi.order.id, oi.product.id from OrderItem oi where oi.product is not null order by oi.order.id")
+    Stream<Object[]> streamOrderProductPairs();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select oi.product.id, o.orderDate, oi.quantity, o.id from OrderItem oi join oi.order o " +
+            "where oi.product is not null and o.orderDate >= :since")
+    Stream<Object[]> streamSalesSince(@Param("since") LocalDateTime since);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into order_items (id, order_id, product_id, quantity) " +
+            "select nextval('order_items_id_seq'), :orderId, ci.product_id, ci.quantity " +
+            "from cart_items ci where ci.cart_id = :cartId order by ci.id", nativeQuery = true)
+    int copyFromCart(@Param("orderId") Long orderId, @Param("cartId") Long cartId);
+
+    @Query("select oi from OrderItem oi join fetch oi.product p left join fetch p.category " +
+            "where oi.order.id = :orderId")
+    List<OrderItem> findWithProductsByOrderId(@Param("orderId") Long orderId);
+}
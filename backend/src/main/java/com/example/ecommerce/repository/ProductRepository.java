@@ -2,14 +2,141 @@ package com.example.ecommerce.repository;
 
 import com.example.ecommerce.model.Product;
 import com.example.ecommerce.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Long id);
+
+    @EntityGraph(attributePaths = "category")
     List<Product> findByCategory(Category category);
+
+    @EntityGraph(attributePaths = "category")
     List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+
+    @EntityGraph(attributePaths = "category")
     List<Product> findByNameContainingIgnoreCase(String name);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllById(Iterable<Long> ids);
+
+    @Query("select p from Product p left join fetch p.category")
+    List<Product> findAllWithCategory();
+
+    @Query("select p.id, c.id from Product p left join p.category c")
+    List<Object[]> findProductCategoryIds();
+
+    @Modifying(clearAutomatically = true)
+    @Query("update versioned Product p set p.price = p.price * :factor where p.category.id = :categoryId")
+    int scalePricesInCategory(@Param("categoryId") Long categoryId, @Param("factor") BigDecimal factor);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update versioned Product p set p.price = p.price * :factor where p.id in :ids")
+    int scalePrices(@Param("ids") Collection<Long> ids, @Param("factor") BigDecimal factor);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update versioned Product p set p.category = :category where p.id in :ids")
+    int moveToCategory(@Param("ids") Collection<Long> ids, @Param("category") Category category);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update versioned Product p set p.category = :category where p.category.id = :fromCategoryId")
+    int moveAllToCategory(@Param("fromCategoryId") Long fromCategoryId, @Param("category") Category category);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p left join fetch p.category order by p.id")
+    Stream<Product> streamAllWithCategory();
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where p.id > :afterId order by p.id")
+    Slice<Product> findSliceById(@Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p " +
+            "where p.price > :afterPrice or (p.price = :afterPrice and p.id > :afterId) " +
+            "order by p.price, p.id")
+    Slice<Product> findSliceByPrice(@Param("afterPrice") BigDecimal afterPrice,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p " +
+            "where p.name > :afterName or (p.name = :afterName and p.id > :afterId) " +
+            "order by p.name, p.id")
+    Slice<Product> findSliceByName(@Param("afterName") String afterName,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where p.category.id = :categoryId and p.id > :afterId order by p.id")
+    Slice<Product> findCategorySliceById(@Param("categoryId") Long categoryId,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where p.category.id = :categoryId " +
+            "and (p.price > :afterPrice or (p.price = :afterPrice and p.id > :afterId)) " +
+            "order by p.price, p.id")
+    Slice<Product> findCategorySliceByPrice(@Param("categoryId") Long categoryId,
+                                            @Param("afterPrice") BigDecimal afterPrice,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where p.category.id = :categoryId " +
+            "and (p.name > :afterName or (p.name = :afterName and p.id > :afterId)) " +
+            "order by p.name, p.id")
+    Slice<Product> findCategorySliceByName(@Param("categoryId") Long categoryId,
+                                           @Param("afterName") String afterName,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where lower(p.name) like lower(concat('%', :name, '%')) " +
+            "and p.id > :afterId order by p.id")
+    Slice<Product> searchSliceById(@Param("name") String name,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where lower(p.name) like lower(concat('%', :name, '%')) " +
+            "and (p.price > :afterPrice or (p.price = :afterPrice and p.id > :afterId)) " +
+            "order by p.price, p.id")
+    Slice<Product> searchSliceByPrice(@Param("name") String name,
+                                      @Param("afterPrice") BigDecimal afterPrice,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where lower(p.name) like lower(concat('%', :name, '%')) " +
+            "and (p.name > :afterName or (p.name = :afterName and p.id > :afterId)) " +
+            "order by p.name, p.id")
+    Slice<Product> searchSliceByName(@Param("name") String name,
+                                     @Param("afterName") String afterName,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
 }
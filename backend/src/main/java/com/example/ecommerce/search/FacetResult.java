@@ -0,0 +1,65 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class FacetResult {
+    private final List<Product> products;
+    private final int total;
+    private final List<CategoryCount> categories;
+    private final List<PriceBandCount> priceBands;
+
+    public FacetResult(List<Product> products, int total, List<CategoryCount> categories,
+                       List<PriceBandCount> priceBands) {
+        this.products = products;
+        this.total = total;
+        this.categories = categories;
+        this.priceBands = priceBands;
+    }
+
+    public List<Product> getProducts() { return products; }
+
+    public int getTotal() { return total; }
+
+    public List<CategoryCount> getCategories() { return categories; }
+
+    public List<PriceBandCount> getPriceBands() { return priceBands; }
+
+    public static class CategoryCount {
+        private final Long id;
+        private final String name;
+        private final int count;
+
+        public CategoryCount(Long id, String name, int count) {
+            this.id = id;
+            this.name = name;
+            this.count = count;
+        }
+
+        public Long getId() { return id; }
+
+        public String getName() { return name; }
+
+        public int getCount() { return count; }
+    }
+
+    public static class PriceBandCount {
+        private final BigDecimal min;
+        private final BigDecimal max;
+        private final int count;
+
+        public PriceBandCount(BigDecimal min, BigDecimal max, int count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        public BigDecimal getMin() { return min; }
+
+        public BigDecimal getMax() { return max; }
+
+        public int getCount() { return count; }
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.CatalogBulkChangedEvent;
+import com.example.ecommerce.service.ProductChangedEvent;
+import com.example.ecommerce.service.ProductCursor;
+import com.example.ecommerce.service.ProductSort;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+    private static final int DENSE_RATIO = 8;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${catalog.facets.price-bands:1000,5000,10000,50000,100000}")
+    private List<BigDecimal> priceBandBounds;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Product> products = new ArrayList<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> categories = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private RoaringBitmap[] priceBands = new RoaringBitmap[0];
+    private final RankOrder byId = new RankOrder(ProductSort.ID.comparator());
+    private final RankOrder byPrice = new RankOrder(ProductSort.PRICE.comparator());
+    private final RankOrder byName = new RankOrder(ProductSort.NAME.comparator());
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Product> all = productRepository.findAllWithCategory();
+        rebuild(all);
+        logger.info("Фасетный индекс построен: {} товаров, {} категорий", all.size(), categories.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinals.get(event.getProductId());
+            if (previous != null) {
+                for (RankOrder order : rankOrders()) {
+                    order.remove(previous);
+                }
+            }
+            delete(event.getProductId());
+            if (!event.isDeleted()) {
+                int ordinal = add(event.getProduct());
+                for (RankOrder order : rankOrders()) {
+                    order.insert(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        if (ready) {
+            load();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(Collection<Product> all) {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            ordinals.clear();
+            freeOrdinals.clear();
+            live.clear();
+            categories.clear();
+            categoryNames.clear();
+            priceBands = new RoaringBitmap[priceBandBounds.size() + 1];
+            for (int i = 0; i < priceBands.length; i++) {
+                priceBands[i] = new RoaringBitmap();
+            }
+            for (Product product : all) {
+                add(product.detachedCopy());
+            }
+            live.runOptimize();
+            categories.values().forEach(RoaringBitmap::runOptimize);
+            Arrays.stream(priceBands).forEach(RoaringBitmap::runOptimize);
+            for (RankOrder order : rankOrders()) {
+                order.rebuild();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public FacetResult browse(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, List<Product> textMatches,
+                              ProductCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = live.clone();
+            if (textMatches != null) {
+                base.and(ordinalsOf(textMatches));
+            }
+            RoaringBitmap priceFilter = priceFilter(minPrice, maxPrice);
+            RoaringBitmap categoryFilter = null;
+            if (categoryId != null) {
+                categoryFilter = categories.getOrDefault(categoryId, new RoaringBitmap());
+            }
+
+            RoaringBitmap categoryFacetBase = priceFilter == null ? base : RoaringBitmap.and(base, priceFilter);
+            RoaringBitmap priceFacetBase = categoryFilter == null ? base : RoaringBitmap.and(base, categoryFilter);
+            RoaringBitmap matches = categoryFilter == null
+                    ? categoryFacetBase
+                    : RoaringBitmap.and(categoryFacetBase, categoryFilter);
+
+            List<FacetResult.CategoryCount> categoryCounts = new ArrayList<>();
+            for (Map.Entry<Long, RoaringBitmap> category : categories.entrySet()) {
+                int count = RoaringBitmap.andCardinality(category.getValue(), categoryFacetBase);
+                categoryCounts.add(new FacetResult.CategoryCount(
+                        category.getKey(), categoryNames.get(category.getKey()), count));
+            }
+            categoryCounts.sort(Comparator.comparingInt((FacetResult.CategoryCount c) -> -c.getCount())
+                    .thenComparing(FacetResult.CategoryCount::getName));
+
+            List<FacetResult.PriceBandCount> bandCounts = new ArrayList<>(priceBands.length);
+            for (int i = 0; i < priceBands.length; i++) {
+                int count = RoaringBitmap.andCardinality(priceBands[i], priceFacetBase);
+                bandCounts.add(new FacetResult.PriceBandCount(bandMin(i), bandMax(i), count));
+            }
+
+            return new FacetResult(page(matches, textMatches, after, limit), matches.getCardinality(),
+                    categoryCounts, bandCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Product> page(BigDecimal minPrice, BigDecimal maxPrice, List<Product> textMatches,
+                              ProductCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = live.clone();
+            if (textMatches != null) {
+                matches.and(ordinalsOf(textMatches));
+            }
+            RoaringBitmap priceFilter = priceFilter(minPrice, maxPrice);
+            if (priceFilter != null) {
+                matches.and(priceFilter);
+            }
+            return page(matches, textMatches, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Product> page(RoaringBitmap matches, List<Product> textMatches, ProductCursor after, int limit) {
+        List<Product> result = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+        if (after.getSort() == ProductSort.RELEVANCE && textMatches != null) {
+            int skip = after.getOffset();
+            for (Product product : textMatches) {
+                Integer ordinal = ordinals.get(product.getId());
+                if (ordinal == null || !matches.contains(ordinal)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else if (result.size() < limit) {
+                    result.add(products.get(ordinal));
+                } else {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        RankOrder order = switch (after.getSort()) {
+            case PRICE -> byPrice;
+            case NAME -> byName;
+            case ID, RELEVANCE -> byId;
+        };
+        boolean relevance = after.getSort() == ProductSort.RELEVANCE;
+        int start = relevance ? 0 : order.lowerBound(after);
+        int skip = relevance ? after.getOffset() : 0;
+        if ((long) matches.getCardinality() * DENSE_RATIO >= live.getCardinality()) {
+            for (int position = start; position < order.size && result.size() < limit; position++) {
+                int ordinal = order.ranked[position];
+                if (matches.contains(ordinal)) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        result.add(products.get(ordinal));
+                    }
+                }
+            }
+            return result;
+        }
+
+        RoaringBitmap positions = new RoaringBitmap();
+        matches.forEach((int ordinal) -> positions.add(order.positions[ordinal]));
+        PeekableIntIterator iterator = positions.getIntIterator();
+        iterator.advanceIfNeeded(start);
+        while (iterator.hasNext() && result.size() < limit) {
+            int ordinal = order.ranked[iterator.next()];
+            if (skip > 0) {
+                skip--;
+            } else {
+                result.add(products.get(ordinal));
+            }
+        }
+        return result;
+    }
+
+    private RankOrder[] rankOrders() {
+        return new RankOrder[] {byId, byPrice, byName};
+    }
+
+    private RoaringBitmap ordinalsOf(List<Product> matches) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Product product : matches) {
+            Integer ordinal = ordinals.get(product.getId());
+            if (ordinal != null) {
+                bitmap.add(ordinal);
+            }
+        }
+        return bitmap;
+    }
+
+    private RoaringBitmap priceFilter(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        RoaringBitmap filter = new RoaringBitmap();
+        for (int i = 0; i < priceBands.length; i++) {
+            BigDecimal low = bandMin(i);
+            BigDecimal high = bandMax(i);
+            boolean belowMin = minPrice != null && high != null && high.compareTo(minPrice) <= 0;
+            boolean aboveMax = maxPrice != null && low.compareTo(maxPrice) > 0;
+            if (belowMin || aboveMax) {
+                continue;
+            }
+            boolean coversLow = minPrice == null || low.compareTo(minPrice) >= 0;
+            boolean coversHigh = maxPrice == null || (high != null && high.compareTo(maxPrice) <= 0);
+            if (coversLow && coversHigh) {
+                filter.or(priceBands[i]);
+            } else {
+                priceBands[i].forEach((int ordinal) -> {
+                    BigDecimal price = products.get(ordinal).getPrice();
+                    if ((minPrice == null || price.compareTo(minPrice) >= 0)
+                            && (maxPrice == null || price.compareTo(maxPrice) <= 0)) {
+                        filter.add(ordinal);
+                    }
+                });
+            }
+        }
+        return filter;
+    }
+
+    private BigDecimal bandMin(int band) {
+        return band == 0 ? BigDecimal.ZERO : priceBandBounds.get(band - 1);
+    }
+
+    private BigDecimal bandMax(int band) {
+        return band < priceBandBounds.size() ? priceBandBounds.get(band) : null;
+    }
+
+    private int bandOf(BigDecimal price) {
+        int band = 0;
+        while (band < priceBandBounds.size() && price.compareTo(priceBandBounds.get(band)) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    private int add(Product product) {
+        int ordinal;
+        if (freeOrdinals.isEmpty()) {
+            ordinal = products.size();
+            products.add(product);
+        } else {
+            ordinal = freeOrdinals.pop();
+            products.set(ordinal, product);
+        }
+        ordinals.put(product.getId(), ordinal);
+        live.add(ordinal);
+
+        Category category = product.getCategory();
+        if (category != null) {
+            categories.computeIfAbsent(category.getId(), id -> new RoaringBitmap()).add(ordinal);
+            categoryNames.put(category.getId(), category.getName());
+        }
+        priceBands[bandOf(product.getPrice())].add(ordinal);
+        return ordinal;
+    }
+
+    private void delete(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        Product product = products.get(ordinal);
+        live.remove(ordinal);
+        if (product.getCategory() != null) {
+            RoaringBitmap category = categories.get(product.getCategory().getId());
+            if (category != null) {
+                category.remove(ordinal);
+            }
+        }
+        priceBands[bandOf(product.getPrice())].remove(ordinal);
+        products.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    private final class RankOrder {
+        private final Comparator<Product> comparator;
+        private int[] ranked = new int[0];
+        private int[] positions = new int[0];
+        private int size;
+
+        private RankOrder(Comparator<Product> comparator) {
+            this.comparator = comparator;
+        }
+
+        private void rebuild() {
+            Integer[] sorted = live.stream().boxed().toArray(Integer[]::new);
+            Arrays.sort(sorted, (a, b) -> comparator.compare(products.get(a), products.get(b)));
+            size = sorted.length;
+            ranked = new int[size];
+            positions = new int[products.size()];
+            for (int position = 0; position < size; position++) {
+                ranked[position] = sorted[position];
+                positions[sorted[position]] = position;
+            }
+        }
+
+        private void insert(int ordinal) {
+            Product product = products.get(ordinal);
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparator.compare(products.get(ranked[mid]), product) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (size == ranked.length) {
+                ranked = Arrays.copyOf(ranked, Math.max(16, size * 2));
+            }
+            if (positions.length < products.size()) {
+                positions = Arrays.copyOf(positions, Math.max(products.size(), positions.length * 2));
+            }
+            System.arraycopy(ranked, low, ranked, low + 1, size - low);
+            ranked[low] = ordinal;
+            size++;
+            for (int position = low; position < size; position++) {
+                positions[ranked[position]] = position;
+            }
+        }
+
+        private void remove(int ordinal) {
+            int at = positions[ordinal];
+            System.arraycopy(ranked, at + 1, ranked, at, size - at - 1);
+            size--;
+            for (int position = at; position < size; position++) {
+                positions[ranked[position]] = position;
+            }
+        }
+
+        private int lowerBound(ProductCursor after) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (after.precedes(products.get(ranked[mid]))) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
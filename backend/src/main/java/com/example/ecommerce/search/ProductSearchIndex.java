@@ -0,0 +1,225 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.CatalogBulkChangedEvent;
+import com.example.ecommerce.service.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final double PREFIX_BOOST = 0.5;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Integer>> documentTerms = new HashMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+    private final Map<Long, Product> documents = new HashMap<>();
+    private long totalLength;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Product> products = productRepository.findAllWithCategory();
+        rebuild(products);
+        logger.info("Поисковый индекс построен: {} товаров, {} термов", products.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        if (ready) {
+            load();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documentLengths.clear();
+            documents.clear();
+            totalLength = 0;
+            for (Product product : products) {
+                add(product.detachedCopy());
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Product> search(String query) {
+        List<String> words = new ArrayList<>();
+        for (String word : TextNormalizer.words(query)) {
+            if (!TextNormalizer.isStopWord(word)) {
+                words.add(word);
+            }
+        }
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < words.size(); i++) {
+                boolean last = i == words.size() - 1;
+                Map<Long, Double> wordScores = scoreWord(words.get(i), last, documentCount, averageLength);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + wordScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            List<Product> result = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Double> entry : ranked) {
+                result.add(documents.get(entry.getKey()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreWord(String word, boolean allowPrefix, int documentCount, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        String stem = TextNormalizer.stem(word);
+        accumulate(scores, stem, 1.0, documentCount, averageLength);
+
+        if (allowPrefix && word.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : postings.subMap(word, true, word + Character.MAX_VALUE, true).keySet()) {
+                if (!term.equals(stem)) {
+                    accumulate(scores, term, PREFIX_BOOST, documentCount, averageLength);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Double> scores, String term, double boost,
+                            int documentCount, double averageLength) {
+        Map<Long, Integer> termPostings = postings.get(term);
+        if (termPostings == null) {
+            return;
+        }
+        int documentFrequency = termPostings.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+            int frequency = posting.getValue();
+            int length = documentLengths.get(posting.getKey());
+            double norm = frequency + K1 * (1 - B + B * length / averageLength);
+            double score = boost * idf * frequency * (K1 + 1) / norm;
+            scores.merge(posting.getKey(), score, Math::max);
+        }
+    }
+
+    private void add(Product product) {
+        Map<String, Integer> terms = new HashMap<>();
+        int length = 0;
+        for (String token : TextNormalizer.tokens(product.getName())) {
+            terms.merge(token, NAME_WEIGHT, Integer::sum);
+            length += NAME_WEIGHT;
+        }
+        for (String token : TextNormalizer.tokens(product.getDescription())) {
+            terms.merge(token, 1, Integer::sum);
+            length++;
+        }
+
+        Long id = product.getId();
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(id, term.getValue());
+        }
+        documentTerms.put(id, terms);
+        documentLengths.put(id, length);
+        documents.put(id, product);
+        totalLength += length;
+    }
+
+    private void delete(Long productId) {
+        Map<String, Integer> terms = documentTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= documentLengths.remove(productId);
+        documents.remove(productId);
+    }
+}
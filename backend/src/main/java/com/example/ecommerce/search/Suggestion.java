@@ -0,0 +1,22 @@
+package com.example.ecommerce.search;
+
+public class Suggestion {
+    public static final String PRODUCT = "product";
+    public static final String CATEGORY = "category";
+
+    private final String text;
+    private final String type;
+    private final Long id;
+
+    public Suggestion(String text, String type, Long id) {
+        this.text = text;
+        this.type = type;
+        this.id = id;
+    }
+
+    public String getText() { return text; }
+
+    public String getType() { return type; }
+
+    public Long getId() { return id; }
+}
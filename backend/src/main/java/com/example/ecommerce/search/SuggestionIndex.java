@@ -0,0 +1,430 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.CatalogBulkChangedEvent;
+import com.example.ecommerce.service.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class SuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    private static final int TOP_K = 20;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt((Entry entry) -> -entry.weight)
+            .thenComparingInt(entry -> entry.text.length())
+            .thenComparing(entry -> entry.text)
+            .thenComparing(entry -> entry.type)
+            .thenComparing(entry -> entry.refId);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, Entry> productEntries = new HashMap<>();
+    private final Map<Long, Entry> categoryEntries = new HashMap<>();
+    private final Map<Long, Long> productCategories = new HashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild(categoryRepository.findAll(), productRepository.findAllWithCategory());
+        logger.info("Индекс подсказок построен: {} товаров, {} категорий",
+                productEntries.size(), categoryEntries.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeProduct(event.getProductId());
+            if (!event.isDeleted()) {
+                addProduct(event.getProduct());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        if (ready) {
+            load();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild(Collection<Category> categories, Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            root.clear();
+            productEntries.clear();
+            categoryEntries.clear();
+            productCategories.clear();
+            Map<Long, Integer> categoryWeights = new HashMap<>();
+            Map<Long, String> categoryNames = new HashMap<>();
+            for (Category category : categories) {
+                categoryWeights.put(category.getId(), 0);
+                categoryNames.put(category.getId(), category.getName());
+            }
+            for (Product product : products) {
+                insert(productEntries, new Entry(Suggestion.PRODUCT, product.getId(), product.getName(), 1), false);
+                Category category = product.getCategory();
+                if (category != null) {
+                    productCategories.put(product.getId(), category.getId());
+                    categoryWeights.merge(category.getId(), 1, Integer::sum);
+                    categoryNames.putIfAbsent(category.getId(), category.getName());
+                }
+            }
+            for (Map.Entry<Long, Integer> category : categoryWeights.entrySet()) {
+                String name = categoryNames.get(category.getKey());
+                insert(categoryEntries, new Entry(Suggestion.CATEGORY, category.getKey(), name, category.getValue()), false);
+            }
+            root.recomputeAll();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            LinkedHashSet<Entry> matches = new LinkedHashSet<>();
+            Node node = root.find(normalized);
+            if (node != null) {
+                for (Entry entry : node.top) {
+                    matches.add(entry);
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            if (matches.size() < limit) {
+                for (Entry entry : fuzzy(normalized)) {
+                    if (matches.add(entry) && matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+
+            List<Suggestion> suggestions = new ArrayList<>(matches.size());
+            for (Entry entry : matches) {
+                suggestions.add(new Suggestion(entry.text, entry.type, entry.refId));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Entry> fuzzy(String query) {
+        int maxDistance = maxDistance(query.length());
+        if (maxDistance == 0) {
+            return List.of();
+        }
+
+        int[] first = new int[query.length() + 1];
+        for (int i = 0; i <= query.length(); i++) {
+            first[i] = i;
+        }
+        Map<Entry, Integer> distances = new HashMap<>();
+        walk(root, query, maxDistance, (char) 0, null, first, distances);
+
+        List<Entry> result = new ArrayList<>(distances.keySet());
+        result.sort(Comparator.comparingInt((Entry entry) -> distances.get(entry)).thenComparing(RANKING));
+        return result;
+    }
+
+    private void addProduct(Product product) {
+        insert(productEntries, new Entry(Suggestion.PRODUCT, product.getId(), product.getName(), 1), true);
+        Category category = product.getCategory();
+        if (category == null) {
+            return;
+        }
+        productCategories.put(product.getId(), category.getId());
+        Entry current = categoryEntries.get(category.getId());
+        int weight = current == null ? 1 : current.weight + 1;
+        if (current != null) {
+            delete(categoryEntries, category.getId());
+        }
+        insert(categoryEntries, new Entry(Suggestion.CATEGORY, category.getId(), category.getName(), weight), true);
+    }
+
+    private void removeProduct(Long productId) {
+        delete(productEntries, productId);
+        Long categoryId = productCategories.remove(productId);
+        if (categoryId == null) {
+            return;
+        }
+        Entry current = delete(categoryEntries, categoryId);
+        if (current != null) {
+            insert(categoryEntries, new Entry(Suggestion.CATEGORY, categoryId, current.text, current.weight - 1), true);
+        }
+    }
+
+    private void insert(Map<Long, Entry> entries, Entry entry, boolean updateTop) {
+        if (entry.text == null) {
+            return;
+        }
+        entries.put(entry.refId, entry);
+        for (String key : entry.keys) {
+            root.insert(key, 0, entry, updateTop);
+        }
+    }
+
+    private Entry delete(Map<Long, Entry> entries, Long refId) {
+        Entry entry = entries.remove(refId);
+        if (entry == null) {
+            return null;
+        }
+        for (String key : entry.keys) {
+            root.remove(key, 0, entry);
+        }
+        return entry;
+    }
+
+    private static int maxDistance(int length) {
+        if (length < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", TextNormalizer.words(text));
+    }
+
+    private static void walk(Node node, String query, int maxDistance, char label,
+                             int[] previousPrevious, int[] previous, Map<Entry, Integer> distances) {
+        int length = query.length();
+        for (int k = 0; k < node.labels.length; k++) {
+            char next = node.labels[k];
+            Node child = node.children[k];
+            int[] current = new int[length + 1];
+            current[0] = previous[0] + 1;
+            int rowMin = current[0];
+            for (int i = 1; i <= length; i++) {
+                int cost = query.charAt(i - 1) == next ? 0 : 1;
+                int value = Math.min(Math.min(previous[i] + 1, current[i - 1] + 1), previous[i - 1] + cost);
+                if (previousPrevious != null && i > 1 && query.charAt(i - 1) == label
+                        && query.charAt(i - 2) == next) {
+                    value = Math.min(value, previousPrevious[i - 2] + 1);
+                }
+                current[i] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (current[length] <= maxDistance) {
+                for (Entry entry : child.top) {
+                    distances.merge(entry, current[length], Math::min);
+                }
+            }
+            if (rowMin <= maxDistance) {
+                walk(child, query, maxDistance, next, previous, current, distances);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String type;
+        private final Long refId;
+        private final String text;
+        private final int weight;
+        private final List<String> keys = new ArrayList<>();
+
+        private Entry(String type, Long refId, String text, int weight) {
+            this.type = type;
+            this.refId = refId;
+            this.text = text;
+            this.weight = weight;
+            List<String> words = TextNormalizer.words(text);
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < words.size(); i++) {
+                String key = String.join(" ", words.subList(i, words.size()));
+                if (seen.add(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] terminals = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        private void clear() {
+            labels = NO_LABELS;
+            children = NO_CHILDREN;
+            terminals = NO_ENTRIES;
+            top = NO_ENTRIES;
+        }
+
+        private Node find(String key) {
+            Node node = this;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            return node;
+        }
+
+        private void insert(String key, int depth, Entry entry, boolean updateTop) {
+            if (depth == key.length()) {
+                terminals = append(terminals, entry);
+            } else {
+                char label = key.charAt(depth);
+                Node child = child(label);
+                if (child == null) {
+                    child = new Node();
+                    addChild(label, child);
+                }
+                child.insert(key, depth + 1, entry, updateTop);
+            }
+            if (updateTop) {
+                TreeSet<Entry> best = new TreeSet<>(RANKING);
+                offer(best, top);
+                offer(best, new Entry[] {entry});
+                top = best.toArray(NO_ENTRIES);
+            }
+        }
+
+        private void remove(String key, int depth, Entry entry) {
+            if (depth == key.length()) {
+                terminals = without(terminals, entry);
+            } else {
+                char label = key.charAt(depth);
+                Node child = child(label);
+                if (child == null) {
+                    return;
+                }
+                child.remove(key, depth + 1, entry);
+                if (child.top.length == 0) {
+                    removeChild(label);
+                }
+            }
+            if (contains(top, entry)) {
+                recomputeTop();
+            }
+        }
+
+        private void recomputeAll() {
+            for (Node child : children) {
+                child.recomputeAll();
+            }
+            recomputeTop();
+        }
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(char label, Node child) {
+            int index = -Arrays.binarySearch(labels, label) - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newLabels[index] = label;
+            newChildren[index] = child;
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        private void recomputeTop() {
+            TreeSet<Entry> best = new TreeSet<>(RANKING);
+            offer(best, terminals);
+            for (Node child : children) {
+                offer(best, child.top);
+            }
+            top = best.toArray(NO_ENTRIES);
+        }
+
+        private static void offer(TreeSet<Entry> best, Entry[] candidates) {
+            for (Entry candidate : candidates) {
+                if (best.size() < TOP_K) {
+                    best.add(candidate);
+                } else if (RANKING.compare(candidate, best.last()) < 0 && best.add(candidate)) {
+                    best.pollLast();
+                }
+            }
+        }
+
+        private static boolean contains(Entry[] entries, Entry entry) {
+            for (Entry candidate : entries) {
+                if (candidate == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Entry[] append(Entry[] entries, Entry entry) {
+            Entry[] result = Arrays.copyOf(entries, entries.length + 1);
+            result[entries.length] = entry;
+            return result;
+        }
+
+        private static Entry[] without(Entry[] entries, Entry entry) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i] == entry) {
+                    Entry[] result = new Entry[entries.length - 1];
+                    System.arraycopy(entries, 0, result, 0, i);
+                    System.arraycopy(entries, i + 1, result, i, entries.length - i - 1);
+                    return result;
+                }
+            }
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Product;
+
+public class Bestseller {
+    private final Product product;
+    private final long sold;
+
+    public Bestseller(Product product, long sold) {
+        this.product = product;
+        this.sold = sold;
+    }
+
+    public Product getProduct() { return product; }
+
+    public long getSold() { return sold; }
+}
@@ -0,0 +1,29 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.search.FacetResult;
+
+import java.util.List;
+
+public class BrowseResult {
+    private final ProductPage page;
+    private final int total;
+    private final List<FacetResult.CategoryCount> categories;
+    private final List<FacetResult.PriceBandCount> priceBands;
+
+    public BrowseResult(ProductPage page, int total,
+                        List<FacetResult.CategoryCount> categories,
+                        List<FacetResult.PriceBandCount> priceBands) {
+        this.page = page;
+        this.total = total;
+        this.categories = categories;
+        this.priceBands = priceBands;
+    }
+
+    public ProductPage getPage() { return page; }
+
+    public int getTotal() { return total; }
+
+    public List<FacetResult.CategoryCount> getCategories() { return categories; }
+
+    public List<FacetResult.PriceBandCount> getPriceBands() { return priceBands; }
+}
@@ -1,25 +1,57 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.cart.CartWriteBehindStore;
+import com.example.ecommerce.catalog.ProductCache;
+import com.example.ecommerce.concurrency.RetryOnConflict;
 import com.example.ecommerce.model.*;
+import com.example.ecommerce.repository.CartItemRepository;
 import com.example.ecommerce.repository.CartRepository;
 import com.example.ecommerce.repository.ProductRepository;
 import com.example.ecommerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class CartService {
     @Autowired
     private CartRepository cartRepository;
 
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private CartWriteBehindStore writeBehindStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${cart.batch.max-operations:100}")
+    private int maxBatchOperations;
+
     public Cart getOrCreateCart(User user) {
+        if (writeBehindStore.isEnabled()) {
+            return writeBehindStore.view(user);
+        }
         Cart cart = cartRepository.findByUser(user);
         if (cart == null) {
             cart = new Cart(user);
@@ -28,46 +60,257 @@ public class CartService {
         return cart;
     }
 
+    public CartSummary getSummary(User user) {
+        List<CartSummary.Line> lines = new ArrayList<>();
+        if (writeBehindStore.isEnabled()) {
+            for (CartItem item : writeBehindStore.view(user).getCartItems()) {
+                Product product = item.getProduct();
+                lines.add(new CartSummary.Line(product.getId(), product.getName(), item.getQuantity(),
+                        product.getPrice(), item.getUnitPrice()));
+            }
+        } else {
+            for (Object[] row : cartItemRepository.findSummaryRowsByUserId(user.getId())) {
+                lines.add(new CartSummary.Line((Long) row[0], (String) row[1], (Integer) row[2],
+                        (BigDecimal) row[3], (BigDecimal) row[4]));
+            }
+        }
+        return new CartSummary(lines);
+    }
+
+    @RetryOnConflict
     public void addToCart(User user, Long productId, Integer quantity) {
-        Cart cart = getOrCreateCart(user);
-        Product product = productRepository.findById(productId)
+        Product product = productCache.find(productId)
                 .orElseThrow(() -> new RuntimeException("Товар не найден"));
+        if (writeBehindStore.isEnabled()) {
+            writeBehindStore.add(user, productId, quantity);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Long cartId = cartRepository.findIdByUserId(user.getId());
+            if (cartId == null) {
+                cartId = cartRepository.save(new Cart(user)).getId();
+            } else {
+                cartRepository.touch(cartId, LocalDateTime.now());
+            }
+            cartItemRepository.addQuantity(cartId, productId, quantity, product.getPrice());
+        });
+    }
+
+    @RetryOnConflict
+    public void removeFromCart(User user, Long productId) {
+        if (writeBehindStore.isEnabled()) {
+            writeBehindStore.remove(user, productId);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = lockedCart(user);
+            cart.getCartItems().removeIf(item -> item.getProduct().getId().equals(productId));
+            cartRepository.save(cart);
+        });
+    }
+
+    @RetryOnConflict
+    public void updateCartItemQuantity(User user, Long productId, Integer quantity) {
+        if (writeBehindStore.isEnabled()) {
+            writeBehindStore.update(user, productId, quantity);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = lockedCart(user);
+            CartItem item = cart.getCartItems().stream()
+                    .filter(i -> i.getProduct().getId().equals(productId))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Товар не найден в корзине"));
 
-        CartItem existingItem = cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElse(null);
+            item.setQuantity(quantity);
+            cartRepository.save(cart);
+        });
+    }
 
-        if (existingItem != null) {
-            existingItem.setQuantity(existingItem.getQuantity() + quantity);
+    @RetryOnConflict
+    public void clearCart(User user) {
+        if (writeBehindStore.isEnabled()) {
+            writeBehindStore.clear(user);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = lockedCart(user);
+            cart.getCartItems().clear();
+            cartRepository.save(cart);
+        });
+    }
+
+    @RetryOnConflict
+    public CartSummary applyBatch(User user, List<CartOperation> operations) {
+        Map<Long, Product> products = validate(operations);
+        if (writeBehindStore.isEnabled()) {
+            writeBehindStore.apply(user, items -> {
+                for (CartOperation operation : operations) {
+                    apply(items, operation);
+                }
+            });
         } else {
-            CartItem newItem = new CartItem(cart, product, quantity);
-            cart.getCartItems().add(newItem);
+            transactionTemplate.executeWithoutResult(status -> applyToCart(lockedCart(user), operations, products));
         }
+        return getSummary(user);
+    }
 
-        cartRepository.save(cart);
+    @RetryOnConflict
+    public Cart mergeGuestCart(User user, Map<Long, Integer> items) {
+        Map<Long, Product> products = productCache.findAll(items.keySet());
+        Map<Long, Integer> guest = new LinkedHashMap<>(items);
+        guest.keySet().retainAll(products.keySet());
+        if (guest.isEmpty()) {
+            return getOrCreateCart(user);
+        }
+        if (writeBehindStore.isEnabled()) {
+            writeBehindStore.apply(user, current -> guest.forEach(
+                    (productId, quantity) -> current.merge(productId, quantity, Math::max)));
+            return writeBehindStore.view(user);
+        }
+        return transactionTemplate.execute(status -> {
+            Cart cart = lockedCart(user);
+            Map<Long, Integer> current = new HashMap<>();
+            for (CartItem item : cart.getCartItems()) {
+                current.put(item.getProduct().getId(), item.getQuantity());
+            }
+            List<CartOperation> operations = new ArrayList<>();
+            for (Map.Entry<Long, Integer> entry : guest.entrySet()) {
+                Integer quantity = current.get(entry.getKey());
+                if (quantity == null) {
+                    operations.add(new CartOperation(CartOperation.ADD, entry.getKey(), entry.getValue()));
+                } else if (entry.getValue() > quantity) {
+                    operations.add(new CartOperation(CartOperation.UPDATE, entry.getKey(), entry.getValue()));
+                }
+            }
+            return operations.isEmpty() ? cart : applyToCart(cart, operations, products);
+        });
     }
 
-    public void removeFromCart(User user, Long productId) {
-        Cart cart = getOrCreateCart(user);
-        cart.getCartItems().removeIf(item -> item.getProduct().getId().equals(productId));
-        cartRepository.save(cart);
+    public Map<Long, Integer> applyGuestBatch(Map<Long, Integer> items, List<CartOperation> operations) {
+        validate(operations);
+        Map<Long, Integer> result = new LinkedHashMap<>(items);
+        for (CartOperation operation : operations) {
+            apply(result, operation);
+        }
+        return result;
     }
 
-    public void updateCartItemQuantity(User user, Long productId, Integer quantity) {
-        Cart cart = getOrCreateCart(user);
-        CartItem item = cart.getCartItems().stream()
-                .filter(i -> i.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Товар не найден в корзине"));
+    public CartSummary getGuestSummary(Map<Long, Integer> items) {
+        Map<Long, Product> products = productCache.findAll(items.keySet());
+        List<CartSummary.Line> lines = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : items.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product != null) {
+                lines.add(new CartSummary.Line(product.getId(), product.getName(), entry.getValue(),
+                        product.getPrice(), null));
+            }
+        }
+        return new CartSummary(lines);
+    }
 
-        item.setQuantity(quantity);
-        cartRepository.save(cart);
+    public void flush(User user) {
+        if (writeBehindStore.isEnabled()) {
+            writeBehindStore.flush(user.getId());
+        }
     }
 
-    public void clearCart(User user) {
-        Cart cart = getOrCreateCart(user);
-        cart.getCartItems().clear();
-        cartRepository.save(cart);
+    public void forget(User user) {
+        if (writeBehindStore.isEnabled()) {
+            writeBehindStore.forget(user.getId());
+        }
+    }
+
+    private Cart lockedCart(User user) {
+        Cart cart = cartRepository.findForUpdateByUserId(user.getId());
+        if (cart == null) {
+            return cartRepository.save(new Cart(user));
+        }
+        cart.setUpdatedAt(LocalDateTime.now());
+        return cart;
+    }
+
+    private Cart applyToCart(Cart cart, List<CartOperation> operations, Map<Long, Product> products) {
+        Map<Long, CartItem> items = new HashMap<>();
+        for (CartItem item : cart.getCartItems()) {
+            items.put(item.getProduct().getId(), item);
+        }
+        for (CartOperation operation : operations) {
+            Long productId = operation.getProductId();
+            CartItem item = items.get(productId);
+            switch (operation.getType()) {
+                case CartOperation.ADD -> {
+                    if (item != null) {
+                        item.setQuantity(item.getQuantity() + operation.getQuantity());
+                    } else {
+                        item = new CartItem(cart, productRepository.getReferenceById(productId), operation.getQuantity());
+                        item.setUnitPrice(products.get(productId).getPrice());
+                        cart.getCartItems().add(item);
+                        items.put(productId, item);
+                    }
+                }
+                case CartOperation.UPDATE -> {
+                    if (item == null) {
+                        throw new RuntimeException("Товар не найден в корзине: " + productId);
+                    }
+                    item.setQuantity(operation.getQuantity());
+                }
+                default -> {
+                    if (item != null) {
+                        cart.getCartItems().remove(item);
+                        items.remove(productId);
+                    }
+                }
+            }
+        }
+        return cartRepository.save(cart);
+    }
+
+    private Map<Long, Product> validate(List<CartOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("Список операций пуст");
+        }
+        if (operations.size() > maxBatchOperations) {
+            throw new IllegalArgumentException("Не более " + maxBatchOperations + " операций за запрос");
+        }
+        Set<Long> added = new LinkedHashSet<>();
+        for (CartOperation operation : operations) {
+            String type = operation.getType();
+            if (!CartOperation.ADD.equals(type) && !CartOperation.UPDATE.equals(type)
+                    && !CartOperation.REMOVE.equals(type)) {
+                throw new IllegalArgumentException("Неизвестная операция: " + type);
+            }
+            if (operation.getProductId() == null) {
+                throw new IllegalArgumentException("Не указан товар");
+            }
+            if (!CartOperation.REMOVE.equals(type)
+                    && (operation.getQuantity() == null || operation.getQuantity() <= 0)) {
+                throw new IllegalArgumentException("Количество должно быть положительным");
+            }
+            if (CartOperation.ADD.equals(type)) {
+                added.add(operation.getProductId());
+            }
+        }
+        Map<Long, Product> products = productCache.findAll(added);
+        for (Long productId : added) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Товар не найден: " + productId);
+            }
+        }
+        return products;
+    }
+
+    private static void apply(Map<Long, Integer> items, CartOperation operation) {
+        Long productId = operation.getProductId();
+        switch (operation.getType()) {
+            case CartOperation.ADD -> items.merge(productId, operation.getQuantity(), Integer::sum);
+            case CartOperation.UPDATE -> {
+                if (!items.containsKey(productId)) {
+                    throw new RuntimeException("Товар не найден в корзине: " + productId);
+                }
+                items.put(productId, operation.getQuantity());
+            }
+            default -> items.remove(productId);
+        }
     }
 }
@@ -0,0 +1,68 @@
+package com.example.ecommerce.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CartSummary {
+    private final List<Line> items;
+    private final BigDecimal subtotal;
+    private final int itemCount;
+    private final boolean priceChanged;
+
+    public CartSummary(List<Line> items) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        int itemCount = 0;
+        boolean priceChanged = false;
+        for (Line line : items) {
+            subtotal = subtotal.add(line.getLineTotal());
+            itemCount += line.getQuantity();
+            priceChanged |= line.isPriceChanged();
+        }
+        this.items = items;
+        this.subtotal = subtotal;
+        this.itemCount = itemCount;
+        this.priceChanged = priceChanged;
+    }
+
+    public List<Line> getItems() { return items; }
+
+    public BigDecimal getSubtotal() { return subtotal; }
+
+    public int getItemCount() { return itemCount; }
+
+    public boolean isPriceChanged() { return priceChanged; }
+
+    public static class Line {
+        private final Long productId;
+        private final String name;
+        private final int quantity;
+        private final BigDecimal price;
+        private final BigDecimal addedPrice;
+
+        public Line(Long productId, String name, int quantity, BigDecimal price, BigDecimal addedPrice) {
+            this.productId = productId;
+            this.name = name;
+            this.quantity = quantity;
+            this.price = price;
+            this.addedPrice = addedPrice;
+        }
+
+        public Long getProductId() { return productId; }
+
+        public String getName() { return name; }
+
+        public int getQuantity() { return quantity; }
+
+        public BigDecimal getPrice() { return price; }
+
+        public BigDecimal getAddedPrice() { return addedPrice; }
+
+        public BigDecimal getLineTotal() {
+            return price.multiply(BigDecimal.valueOf(quantity));
+        }
+
+        public boolean isPriceChanged() {
+            return addedPrice != null && addedPrice.compareTo(price) != 0;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ecommerce.service;
+
+public class CatalogBulkChangedEvent {
+    private final int affectedProducts;
+
+    public CatalogBulkChangedEvent(int affectedProducts) {
+        this.affectedProducts = affectedProducts;
+    }
+
+    public int getAffectedProducts() { return affectedProducts; }
+}
@@ -0,0 +1,59 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderItem;
+import com.example.ecommerce.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderPlacedEvent {
+    private final Long orderId;
+    private final LocalDateTime orderDate;
+    private final List<Line> lines;
+
+    public OrderPlacedEvent(Long orderId, LocalDateTime orderDate, List<Line> lines) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.lines = lines;
+    }
+
+    public static OrderPlacedEvent of(Order order) {
+        List<Line> lines = new ArrayList<>(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            Product product = item.getProduct();
+            if (product == null) {
+                continue;
+            }
+            Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+            int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+            lines.add(new Line(product.getId(), categoryId, quantity));
+        }
+        return new OrderPlacedEvent(order.getId(), order.getOrderDate(), lines);
+    }
+
+    public Long getOrderId() { return orderId; }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+
+    public List<Line> getLines() { return lines; }
+
+    public static class Line {
+        private final Long productId;
+        private final Long categoryId;
+        private final int quantity;
+
+        public Line(Long productId, Long categoryId, int quantity) {
+            this.productId = productId;
+            this.categoryId = categoryId;
+            this.quantity = quantity;
+        }
+
+        public Long getProductId() { return productId; }
+
+        public Long getCategoryId() { return categoryId; }
+
+        public int getQuantity() { return quantity; }
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.concurrency.RetryOnConflict;
 import com.example.ecommerce.model.*;
 import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.CartItemRepository;
 import com.example.ecommerce.repository.CartRepository;
+import com.example.ecommerce.repository.OrderItemRepository;
 import com.example.ecommerce.repository.ProductRepository;
 import com.example.ecommerce.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -25,21 +29,36 @@ public class OrderService {
     @Autowired
     private CartRepository cartRepository;
 
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private CartService cartService;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Order> getUserOrders(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
         return orderRepository.findByUser(user);
     }
 
+    @Transactional
+    @RetryOnConflict
     public Order createOrder(User user, Map<String, String> deliveryInfo) {
-        Cart cart = cartRepository.findByUser(user);
-        if (cart == null || cart.getCartItems().isEmpty()) {
+        cartService.flush(user);
+        Cart cart = cartRepository.findForUpdateByUserId(user.getId());
+        if (cart == null) {
             throw new RuntimeException("Корзина пуста");
         }
 
@@ -62,16 +81,16 @@ public class OrderService {
             }
         }
 
-        Set<OrderItem> orderItems = cart.getCartItems().stream()
-                .map(item -> new OrderItem(order, item.getProduct(), item.getQuantity()))
-                .collect(Collectors.toSet());
-
-        order.setOrderItems(orderItems);
         orderRepository.save(order);
+        if (orderItemRepository.copyFromCart(order.getId(), cart.getId()) == 0) {
+            throw new RuntimeException("Корзина пуста");
+        }
+        cartItemRepository.deleteByCartId(cart.getId());
+        cart.setUpdatedAt(LocalDateTime.now());
+        order.getOrderItems().addAll(orderItemRepository.findWithProductsByOrderId(order.getId()));
+        cartService.forget(user);
 
-        cart.getCartItems().clear();
-        cartRepository.save(cart);
-
+        eventPublisher.publishEvent(OrderPlacedEvent.of(order));
         return order;
     }
 
@@ -80,12 +99,45 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Заказ не найден"));
     }
 
+    @Transactional
+    @RetryOnConflict
     public void updateOrderStatus(Long orderId, String status) {
         Order order = getOrderById(orderId);
         order.setStatus(status);
         orderRepository.save(order);
     }
 
+    @Transactional
+    @RetryOnConflict
+    public Order updateDeliveryInfo(Long orderId, Map<String, String> deliveryInfo) {
+        Order order = getOrderById(orderId);
+
+        if (deliveryInfo.containsKey("shippingAddress")) {
+            order.setShippingAddress(deliveryInfo.get("shippingAddress"));
+        }
+        if (deliveryInfo.containsKey("recipientPhone")) {
+            order.setRecipientPhone(deliveryInfo.get("recipientPhone"));
+        }
+        if (deliveryInfo.containsKey("recipientName")) {
+            order.setRecipientName(deliveryInfo.get("recipientName"));
+        }
+        if (deliveryInfo.containsKey("deliveryNotes")) {
+            order.setDeliveryNotes(deliveryInfo.get("deliveryNotes"));
+        }
+        if (deliveryInfo.containsKey("shippingMethod")) {
+            order.setShippingMethod(deliveryInfo.get("shippingMethod"));
+        }
+        if (deliveryInfo.containsKey("shippingCost")) {
+            try {
+                order.setShippingCost(new BigDecimal(deliveryInfo.get("shippingCost")));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Неверный формат стоимости доставки");
+            }
+        }
+
+        return orderRepository.save(order);
+    }
+
     public Order reorder(Long orderId, Long userId) {
         Order oldOrder = getOrderById(orderId);
 
@@ -99,13 +151,15 @@ public class OrderService {
         newOrder.setShippingMethod(oldOrder.getShippingMethod());
         newOrder.setShippingCost(oldOrder.getShippingCost());
 
-        Set<OrderItem> newOrderItems = oldOrder.getOrderItems().stream()
+        Set<OrderItem> newOrderItems = orderItemRepository.findWithProductsByOrderId(oldOrder.getId()).stream()
                 .map(oldItem -> new OrderItem(newOrder, oldItem.getProduct(), oldItem.getQuantity()))
                 .collect(Collectors.toSet());
 
         newOrder.setOrderItems(newOrderItems);
 
-        return orderRepository.save(newOrder);
+        Order saved = orderRepository.save(newOrder);
+        eventPublisher.publishEvent(OrderPlacedEvent.of(saved));
+        return saved;
     }
 
     public List<Order> getAllOrders() {
@@ -0,0 +1,119 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Service
+public class ProductBulkUpdateService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Transactional
+    public int adjustPricesInCategory(Long categoryId, BigDecimal percent) {
+        BigDecimal factor = factor(percent);
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new RuntimeException("Категория не найдена");
+        }
+        return published(productRepository.scalePricesInCategory(categoryId, factor));
+    }
+
+    @Transactional
+    public int adjustPrices(Collection<Long> ids, BigDecimal percent) {
+        BigDecimal factor = factor(percent);
+        return published(inChunks(ids, chunk -> productRepository.scalePrices(chunk, factor)));
+    }
+
+    @Transactional
+    public int setPrices(Map<Long, BigDecimal> prices) {
+        List<Map.Entry<Long, BigDecimal>> entries = new ArrayList<>(prices.entrySet());
+        for (Map.Entry<Long, BigDecimal> entry : entries) {
+            if (entry.getKey() == null || entry.getValue() == null || entry.getValue().signum() <= 0) {
+                throw new IllegalArgumentException("Цена товара " + entry.getKey() + " должна быть положительной");
+            }
+        }
+        int[][] counts = jdbcTemplate.batchUpdate("update products set price = ?, version = version + 1 where id = ?",
+                entries, chunkSize, (statement, entry) -> {
+                    statement.setBigDecimal(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return published(updated);
+    }
+
+    @Transactional
+    public int moveToCategory(Collection<Long> ids, Long categoryId) {
+        Category category = category(categoryId);
+        return published(inChunks(ids, chunk -> productRepository.moveToCategory(chunk, category)));
+    }
+
+    @Transactional
+    public int moveAllToCategory(Long fromCategoryId, Long categoryId) {
+        if (!categoryRepository.existsById(fromCategoryId)) {
+            throw new RuntimeException("Категория не найдена");
+        }
+        return published(productRepository.moveAllToCategory(fromCategoryId, category(categoryId)));
+    }
+
+    private Category category(Long categoryId) {
+        return categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new RuntimeException("Категория не найдена"));
+    }
+
+    private BigDecimal factor(BigDecimal percent) {
+        if (percent == null || percent.compareTo(HUNDRED.negate()) <= 0) {
+            throw new IllegalArgumentException("Процент изменения цены должен быть больше -100");
+        }
+        return BigDecimal.ONE.add(percent.divide(HUNDRED));
+    }
+
+    private int inChunks(Collection<Long> ids, Function<List<Long>, Integer> update) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        int updated = 0;
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            updated += update.apply(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return updated;
+    }
+
+    private int published(int updated) {
+        if (updated > 0) {
+            eventPublisher.publishEvent(new CatalogBulkChangedEvent(updated));
+        }
+        return updated;
+    }
+}
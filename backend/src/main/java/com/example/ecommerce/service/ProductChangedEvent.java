@@ -0,0 +1,27 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Product;
+
+public class ProductChangedEvent {
+    private final Long productId;
+    private final Product product;
+
+    private ProductChangedEvent(Long productId, Product product) {
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(), product.detachedCopy());
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public Long getProductId() { return productId; }
+
+    public Product getProduct() { return product; }
+
+    public boolean isDeleted() { return product == null; }
+}
@@ -0,0 +1,87 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class ProductCursor {
+    private static final BigDecimal MIN_PRICE = new BigDecimal("-1");
+    private static final String MIN_NAME = "";
+
+    private final ProductSort sort;
+    private final Long lastId;
+    private final BigDecimal lastPrice;
+    private final String lastName;
+
+    private ProductCursor(ProductSort sort, Long lastId, BigDecimal lastPrice, String lastName) {
+        this.sort = sort;
+        this.lastId = lastId;
+        this.lastPrice = lastPrice;
+        this.lastName = lastName;
+    }
+
+    public static ProductCursor first(ProductSort sort) {
+        return new ProductCursor(sort, 0L, MIN_PRICE, MIN_NAME);
+    }
+
+    public static ProductCursor atOffset(int offset) {
+        return new ProductCursor(ProductSort.RELEVANCE, (long) offset, MIN_PRICE, MIN_NAME);
+    }
+
+    public static ProductCursor after(ProductSort sort, Product product) {
+        return new ProductCursor(sort, product.getId(), product.getPrice(), product.getName());
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Некорректный курсор");
+            }
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            Long lastId = Long.valueOf(parts[1]);
+            if (sort == ProductSort.RELEVANCE && (lastId < 0 || lastId > Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException("Некорректный курсор");
+            }
+            return switch (sort) {
+                case PRICE -> new ProductCursor(sort, lastId, new BigDecimal(parts[2]), MIN_NAME);
+                case NAME -> new ProductCursor(sort, lastId, MIN_PRICE, parts[2]);
+                case ID, RELEVANCE -> new ProductCursor(sort, lastId, MIN_PRICE, MIN_NAME);
+            };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+    }
+
+    public String encode() {
+        String value = switch (sort) {
+            case PRICE -> lastPrice.toPlainString();
+            case NAME -> lastName;
+            case ID, RELEVANCE -> "";
+        };
+        String raw = sort.name() + "|" + lastId + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean precedes(Product product) {
+        int byValue = switch (sort) {
+            case PRICE -> product.getPrice().compareTo(lastPrice);
+            case NAME -> product.getName().compareTo(lastName);
+            case ID, RELEVANCE -> 0;
+        };
+        return byValue > 0 || (byValue == 0 && product.getId() > lastId);
+    }
+
+    public ProductSort getSort() { return sort; }
+
+    public int getOffset() { return lastId.intValue(); }
+
+    public Long getLastId() { return lastId; }
+
+    public BigDecimal getLastPrice() { return lastPrice; }
+
+    public String getLastName() { return lastName; }
+}
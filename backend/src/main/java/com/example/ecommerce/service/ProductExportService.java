@@ -0,0 +1,106 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+public class ProductExportService {
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final String CSV_HEADER = "id,name,description,price,category_id,category_name\n";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalog.export.chunk-size:500}")
+    private int chunkSize;
+
+    public static boolean isSupported(String format) {
+        return NDJSON.equals(format) || CSV.equals(format);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(String format, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, 64 * 1024);
+        boolean csv = CSV.equals(format);
+        if (csv) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (Stream<Product> products = productRepository.streamAllWithCategory()) {
+            Iterator<Product> iterator = products.iterator();
+            int inChunk = 0;
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                if (csv) {
+                    out.write(csvRow(product).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(jsonRow(product)));
+                    out.write('\n');
+                }
+                if (++inChunk == chunkSize) {
+                    entityManager.clear();
+                    out.flush();
+                    inChunk = 0;
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private Map<String, Object> jsonRow(Product product) {
+        Category category = product.getCategory();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", product.getId());
+        row.put("name", product.getName());
+        row.put("description", product.getDescription());
+        row.put("price", product.getPrice());
+        row.put("categoryId", category != null ? category.getId() : null);
+        row.put("categoryName", category != null ? category.getName() : null);
+        return row;
+    }
+
+    private String csvRow(Product product) {
+        Category category = product.getCategory();
+        return product.getId() + ","
+                + csvValue(product.getName()) + ","
+                + csvValue(product.getDescription()) + ","
+                + product.getPrice().toPlainString() + ","
+                + (category != null ? category.getId() : "") + ","
+                + csvValue(category != null ? category.getName() : null) + "\n";
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
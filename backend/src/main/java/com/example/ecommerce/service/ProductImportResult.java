@@ -0,0 +1,49 @@
+package com.example.ecommerce.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportResult {
+    private int received;
+    private int imported;
+    private int failed;
+    private final List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    void addReceived() { received++; }
+
+    void addImported(int count) { imported += count; }
+
+    void addError(long row, String error, int maxErrors) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, error));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public int getReceived() { return received; }
+
+    public int getImported() { return imported; }
+
+    public int getFailed() { return failed; }
+
+    public List<RowError> getErrors() { return errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+
+    public static class RowError {
+        private final long row;
+        private final String error;
+
+        public RowError(long row, String error) {
+            this.row = row;
+            this.error = error;
+        }
+
+        public long getRow() { return row; }
+
+        public String getError() { return error; }
+    }
+}
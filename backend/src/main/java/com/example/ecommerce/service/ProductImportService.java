@@ -0,0 +1,358 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final String INSERT_SQL =
+            "insert into products (name, description, price, category_id) values (?, ?, ?, ?)";
+    private static final String COPY_SQL =
+            "COPY products (name, description, price, category_id) FROM STDIN WITH (FORMAT csv)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${catalog.import.copy-enabled:true}")
+    private boolean copyEnabled;
+
+    @Value("${catalog.import.max-errors:1000}")
+    private int maxErrors;
+
+    public ProductImportResult importProducts(String format, InputStream input) throws IOException {
+        long started = System.nanoTime();
+        Map<Long, Long> categoriesById = new HashMap<>();
+        Map<String, Long> categoriesByName = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoriesById.put(category.getId(), category.getId());
+            categoriesByName.put(category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+        }
+
+        ImportBatch batch = new ImportBatch(categoriesById, categoriesByName, copyEnabled && supportsCopy());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        if (ProductExportService.CSV.equals(format)) {
+            readCsv(reader, batch);
+        } else {
+            readNdjson(reader, batch);
+        }
+        batch.flush();
+
+        ProductImportResult result = batch.result;
+        if (result.getImported() > 0) {
+            eventPublisher.publishEvent(new CatalogBulkChangedEvent(result.getImported()));
+        }
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        logger.info("Импорт товаров ({}): {} загружено, {} с ошибками за {} мс, {} строк/с",
+                batch.copy ? "COPY" : "batch", result.getImported(), result.getFailed(), millis,
+                result.getReceived() * 1000L / millis);
+        return result;
+    }
+
+    private void readCsv(BufferedReader reader, ImportBatch batch) throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("В заголовке CSV должны быть колонки name и price");
+        }
+
+        long row = 0;
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            String categoryName = column(record, columns, "categoryname");
+            batch.accept(row,
+                    column(record, columns, "name"),
+                    column(record, columns, "description"),
+                    column(record, columns, "price"),
+                    column(record, columns, "categoryid"),
+                    categoryName != null ? categoryName : column(record, columns, "category"));
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportBatch batch) throws IOException {
+        ObjectReader jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = jsonReader.readTree(line);
+            } catch (JsonProcessingException e) {
+                batch.result.addReceived();
+                batch.result.addError(row, "Некорректный JSON: " + e.getOriginalMessage(), maxErrors);
+                continue;
+            }
+            String categoryId = text(node, "categoryId");
+            String categoryName = text(node, "categoryName");
+            batch.accept(row,
+                    text(node, "name"),
+                    text(node, "description"),
+                    text(node, "price"),
+                    categoryId != null ? categoryId : text(node, "category_id"),
+                    categoryName != null ? categoryName : text(node, "category"));
+        }
+    }
+
+    private boolean supportsCopy() {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private int copyChunk(List<ImportRow> chunk) {
+        StringBuilder csv = new StringBuilder(chunk.size() * 96);
+        for (ImportRow row : chunk) {
+            csv.append(quote(row.name)).append(',')
+                    .append(row.description == null ? "" : quote(row.description)).append(',')
+                    .append(row.price.toPlainString()).append(',')
+                    .append(row.categoryId == null ? "" : row.categoryId).append('\n');
+        }
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                return copyManager.copyIn(COPY_SQL, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return copied == null ? chunk.size() : copied.intValue();
+    }
+
+    private int insertChunk(List<ImportRow> chunk) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (statement, row) -> {
+            statement.setString(1, row.name);
+            statement.setString(2, row.description);
+            statement.setBigDecimal(3, row.price);
+            if (row.categoryId == null) {
+                statement.setNull(4, Types.BIGINT);
+            } else {
+                statement.setLong(4, row.categoryId);
+            }
+        });
+        return chunk.size();
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    quoted = false;
+                    continue;
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == -1 || c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private static final class ImportRow {
+        private final long row;
+        private final String name;
+        private final String description;
+        private final BigDecimal price;
+        private final Long categoryId;
+
+        private ImportRow(long row, String name, String description, BigDecimal price, Long categoryId) {
+            this.row = row;
+            this.name = name;
+            this.description = description;
+            this.price = price;
+            this.categoryId = categoryId;
+        }
+    }
+
+    private final class ImportBatch {
+        private final Map<Long, Long> categoriesById;
+        private final Map<String, Long> categoriesByName;
+        private final boolean copy;
+        private final List<ImportRow> chunk = new ArrayList<>();
+        private final ProductImportResult result = new ProductImportResult();
+
+        private ImportBatch(Map<Long, Long> categoriesById, Map<String, Long> categoriesByName, boolean copy) {
+            this.categoriesById = categoriesById;
+            this.categoriesByName = categoriesByName;
+            this.copy = copy;
+        }
+
+        private void accept(long row, String name, String description, String price,
+                            String categoryId, String categoryName) {
+            result.addReceived();
+            try {
+                chunk.add(validate(row, name, description, price, categoryId, categoryName));
+            } catch (IllegalArgumentException e) {
+                result.addError(row, e.getMessage(), maxErrors);
+                return;
+            }
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private ImportRow validate(long row, String name, String description, String price,
+                                   String categoryId, String categoryName) {
+            String trimmedName = name == null ? "" : name.trim();
+            if (trimmedName.isEmpty()) {
+                throw new IllegalArgumentException("Не указано название товара");
+            }
+            if (trimmedName.length() > 100) {
+                throw new IllegalArgumentException("Название длиннее 100 символов");
+            }
+            if (description != null && description.length() > 1000) {
+                throw new IllegalArgumentException("Описание длиннее 1000 символов");
+            }
+
+            BigDecimal parsedPrice;
+            try {
+                parsedPrice = new BigDecimal(price == null ? "" : price.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некорректная цена: " + price);
+            }
+            if (parsedPrice.signum() <= 0) {
+                throw new IllegalArgumentException("Цена должна быть положительной");
+            }
+
+            Long category = null;
+            if (categoryId != null && !categoryId.isBlank()) {
+                try {
+                    category = categoriesById.get(Long.parseLong(categoryId.trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Некорректный идентификатор категории: " + categoryId);
+                }
+                if (category == null) {
+                    throw new IllegalArgumentException("Категория не найдена: " + categoryId);
+                }
+            } else if (categoryName != null && !categoryName.isBlank()) {
+                category = categoriesByName.get(categoryName.trim().toLowerCase(Locale.ROOT));
+                if (category == null) {
+                    throw new IllegalArgumentException("Категория не найдена: " + categoryName);
+                }
+            }
+            return new ImportRow(row, trimmedName, description, parsedPrice, category);
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                Integer written = transactionTemplate.execute(status -> copy ? copyChunk(chunk) : insertChunk(chunk));
+                result.addImported(written == null ? 0 : written);
+            } catch (RuntimeException e) {
+                String message = "Ошибка записи пакета: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (ImportRow row : chunk) {
+                    result.addError(row.row, message, maxErrors);
+                }
+            }
+            chunk.clear();
+        }
+    }
+}
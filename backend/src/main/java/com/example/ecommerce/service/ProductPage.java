@@ -0,0 +1,21 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Product;
+
+import java.util.List;
+
+public class ProductPage {
+    private final List<Product> products;
+    private final String next;
+
+    public ProductPage(List<Product> products, String next) {
+        this.products = products;
+        this.next = next;
+    }
+
+    public List<Product> getProducts() { return products; }
+
+    public String getNext() { return next; }
+
+    public boolean hasNext() { return next != null; }
+}
@@ -1,13 +1,36 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.catalog.CatalogReadModel;
+import com.example.ecommerce.catalog.CatalogSnapshot;
+import com.example.ecommerce.catalog.PriceIndex;
+import com.example.ecommerce.catalog.ProductCache;
+import com.example.ecommerce.concurrency.RetryOnConflict;
 import com.example.ecommerce.model.Product;
 import com.example.ecommerce.model.Category;
+import com.example.ecommerce.recommendation.BestsellerIndex;
+import com.example.ecommerce.recommendation.BestsellerWindow;
+import com.example.ecommerce.recommendation.CoOccurrenceIndex;
 import com.example.ecommerce.repository.ProductRepository;
 import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.search.FacetResult;
+import com.example.ecommerce.search.ProductFacetIndex;
+import com.example.ecommerce.search.ProductSearchIndex;
+import com.example.ecommerce.search.Suggestion;
+import com.example.ecommerce.search.SuggestionIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ProductService {
@@ -17,7 +40,61 @@ public class ProductService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CatalogReadModel catalogReadModel;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private CoOccurrenceIndex coOccurrenceIndex;
+
+    @Autowired
+    private BestsellerIndex bestsellerIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${catalog.suggest.default-size:8}")
+    private int defaultSuggestSize;
+
+    @Value("${catalog.suggest.max-size:20}")
+    private int maxSuggestSize;
+
+    @Value("${catalog.batch.max-ids:100}")
+    private int maxBatchIds;
+
+    @Value("${catalog.related.default-size:8}")
+    private int defaultRelatedSize;
+
+    @Value("${catalog.related.top-k:20}")
+    private int maxRelatedSize;
+
+    @Value("${catalog.bestsellers.default-size:10}")
+    private int defaultBestsellersSize;
+
+    @Value("${catalog.bestsellers.top-k:50}")
+    private int maxBestsellersSize;
+
     public List<Product> getAllProducts() {
+        if (catalogReadModel.isReady()) {
+            return catalogReadModel.current().getProducts();
+        }
         return productRepository.findAll();
     }
 
@@ -26,18 +103,278 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Товар не найден"));
     }
 
-    public List<Product> getProductsByCategory(Long categoryId) {
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new RuntimeException("Категория не найдена"));
-        return productRepository.findByCategory(category);
+    public Product getCatalogProduct(Long id) {
+        if (catalogReadModel.isReady()) {
+            return getCatalogProduct(catalogReadModel.current(), id);
+        }
+        return productCache.find(id)
+                .orElseThrow(() -> new RuntimeException("Товар не найден"));
+    }
+
+    public Product getCatalogProduct(CatalogSnapshot snapshot, Long id) {
+        return snapshot.findProduct(id)
+                .orElseThrow(() -> new RuntimeException("Товар не найден"));
+    }
+
+    public List<Product> getProductsByIds(List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            throw new IllegalArgumentException("Можно запросить не более " + maxBatchIds + " товаров");
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Product> products = new ArrayList<>(distinct.size());
+        if (catalogReadModel.isReady()) {
+            CatalogSnapshot snapshot = catalogReadModel.current();
+            for (Long id : distinct) {
+                snapshot.findProduct(id).ifPresent(products::add);
+            }
+            return products;
+        }
+        Map<Long, Product> found = productCache.findAll(distinct);
+        for (Long id : distinct) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
     }
 
     public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+        if (catalogReadModel.isReady()) {
+            CatalogSnapshot snapshot = catalogReadModel.current();
+            PriceIndex index = snapshot.getPriceIndex();
+            return productsAt(snapshot, index.fromPrice(minPrice), index.toPrice(maxPrice));
+        }
+        return productRepository.findByPriceBetween(
+                minPrice != null ? minPrice : BigDecimal.ZERO,
+                maxPrice != null ? maxPrice : BigDecimal.valueOf(Long.MAX_VALUE));
+    }
+
+    public ProductPage getProductsPage(String sort, String cursor, Integer limit,
+                                       BigDecimal minPrice, BigDecimal maxPrice) {
+        ProductCursor after = resolveCursor(sort, cursor);
+        boolean priceFiltered = minPrice != null || maxPrice != null;
+        if (catalogReadModel.isReady() && (priceFiltered || after.getSort() == ProductSort.PRICE)) {
+            CatalogSnapshot snapshot = catalogReadModel.current();
+            PriceIndex index = snapshot.getPriceIndex();
+            int from = index.fromPrice(minPrice);
+            int to = index.toPrice(maxPrice);
+            if (after.getSort() == ProductSort.PRICE) {
+                from = Math.max(from, index.after(after.getLastPrice(), after.getLastId()));
+                return pricePage(snapshot, from, to, pageSize(limit));
+            }
+            if (productFacetIndex.isReady()) {
+                int size = pageSize(limit);
+                return pageFrom(productFacetIndex.page(minPrice, maxPrice, null, after, size + 1), after, size);
+            }
+            return pageOf(productsAt(snapshot, from, to), after, limit);
+        }
+        if (priceFiltered) {
+            return pageOf(getProductsByPriceRange(minPrice, maxPrice), after, limit);
+        }
+        Pageable pageable = pageRequest(limit);
+        Slice<Product> slice = switch (after.getSort()) {
+            case ID, RELEVANCE -> productRepository.findSliceById(after.getLastId(), pageable);
+            case PRICE -> productRepository.findSliceByPrice(after.getLastPrice(), after.getLastId(), pageable);
+            case NAME -> productRepository.findSliceByName(after.getLastName(), after.getLastId(), pageable);
+        };
+        return toPage(slice, after.getSort());
+    }
+
+    public ProductPage getProductsByCategoryPage(Long categoryId, String sort, String cursor, Integer limit) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new RuntimeException("Категория не найдена");
+        }
+        ProductCursor after = resolveCursor(sort, cursor);
+        Pageable pageable = pageRequest(limit);
+        Slice<Product> slice = switch (after.getSort()) {
+            case ID, RELEVANCE -> productRepository.findCategorySliceById(categoryId, after.getLastId(), pageable);
+            case PRICE -> productRepository.findCategorySliceByPrice(
+                    categoryId, after.getLastPrice(), after.getLastId(), pageable);
+            case NAME -> productRepository.findCategorySliceByName(
+                    categoryId, after.getLastName(), after.getLastId(), pageable);
+        };
+        return toPage(slice, after.getSort());
+    }
+
+    public List<Suggestion> suggest(String query, Integer limit) {
+        int size = limit == null ? defaultSuggestSize : Math.max(1, Math.min(limit, maxSuggestSize));
+        return suggestionIndex.suggest(query, size);
+    }
+
+    public List<Product> getRelatedProducts(Long productId, Integer limit) {
+        getCatalogProduct(productId);
+        int size = limit == null ? defaultRelatedSize : Math.max(1, Math.min(limit, maxRelatedSize));
+        List<Long> ids = coOccurrenceIndex.related(productId);
+        List<Product> related = new ArrayList<>(Math.min(size, ids.size()));
+        if (catalogReadModel.isReady()) {
+            CatalogSnapshot snapshot = catalogReadModel.current();
+            for (Long id : ids) {
+                if (related.size() == size) {
+                    break;
+                }
+                snapshot.findProduct(id).ifPresent(related::add);
+            }
+            return related;
+        }
+        Map<Long, Product> loaded = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            loaded.put(product.getId(), product);
+        }
+        for (Long id : ids) {
+            Product product = loaded.get(id);
+            if (product != null && related.size() < size) {
+                related.add(product);
+            }
+        }
+        return related;
+    }
+
+    public List<Bestseller> getBestsellers(Long categoryId, String window, Integer limit) {
+        BestsellerWindow bestsellerWindow = BestsellerWindow.fromParam(window);
+        if (!bestsellerIndex.isReady() || !catalogReadModel.isReady()) {
+            throw new RuntimeException("Рейтинг продаж еще не построен");
+        }
+        int size = limit == null ? defaultBestsellersSize : Math.max(1, Math.min(limit, maxBestsellersSize));
+        BestsellerIndex.Ranking ranking = bestsellerIndex.top(bestsellerWindow, categoryId);
+        CatalogSnapshot snapshot = catalogReadModel.current();
+        List<Bestseller> bestsellers = new ArrayList<>(Math.min(size, ranking.size()));
+        for (int i = 0; i < ranking.size() && bestsellers.size() < size; i++) {
+            long sold = ranking.soldAt(i);
+            snapshot.findProduct(ranking.productIdAt(i))
+                    .ifPresent(product -> bestsellers.add(new Bestseller(product, sold)));
+        }
+        return bestsellers;
+    }
+
+    public BrowseResult browseProducts(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, String query,
+                                       String sort, String cursor, Integer limit) {
+        if (!productFacetIndex.isReady() || !productSearchIndex.isReady()) {
+            throw new RuntimeException("Индекс каталога еще не построен");
+        }
+        boolean hasQuery = query != null && !query.isBlank();
+        List<Product> textMatches = hasQuery ? productSearchIndex.search(query) : null;
+
+        String browseSort = sort;
+        if ((sort == null || sort.isBlank()) && hasQuery) {
+            browseSort = ProductSort.RELEVANCE.name();
+        }
+        ProductCursor after = resolveCursor(browseSort, cursor);
+        int size = pageSize(limit);
+        FacetResult facets = productFacetIndex.browse(categoryId, minPrice, maxPrice, textMatches, after, size + 1);
+        ProductPage page = pageFrom(facets.getProducts(), after, size);
+        return new BrowseResult(page, facets.getTotal(), facets.getCategories(), facets.getPriceBands());
+    }
+
+    public ProductPage searchProductsPage(String name, String sort, String cursor, Integer limit) {
+        if (productSearchIndex.isReady()) {
+            String searchSort = sort == null || sort.isBlank() ? ProductSort.RELEVANCE.name() : sort;
+            ProductCursor after = resolveCursor(searchSort, cursor);
+            if (productFacetIndex.isReady()) {
+                int size = pageSize(limit);
+                return pageFrom(productFacetIndex.page(null, null, productSearchIndex.search(name), after, size + 1),
+                        after, size);
+            }
+            return pageOf(productSearchIndex.search(name), after, limit);
+        }
+        ProductCursor after = resolveCursor(sort, cursor);
+        Pageable pageable = pageRequest(limit);
+        Slice<Product> slice = switch (after.getSort()) {
+            case ID, RELEVANCE -> productRepository.searchSliceById(name, after.getLastId(), pageable);
+            case PRICE -> productRepository.searchSliceByPrice(
+                    name, after.getLastPrice(), after.getLastId(), pageable);
+            case NAME -> productRepository.searchSliceByName(
+                    name, after.getLastName(), after.getLastId(), pageable);
+        };
+        return toPage(slice, after.getSort());
+    }
+
+    private ProductCursor resolveCursor(String sort, String cursor) {
+        if (cursor != null && !cursor.isBlank()) {
+            ProductCursor decoded = ProductCursor.decode(cursor);
+            if (sort != null && !sort.isBlank() && decoded.getSort() != ProductSort.fromParam(sort)) {
+                throw new IllegalArgumentException("Курсор не соответствует сортировке");
+            }
+            return decoded;
+        }
+        return ProductCursor.first(ProductSort.fromParam(sort));
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private Pageable pageRequest(Integer limit) {
+        return PageRequest.of(0, pageSize(limit));
+    }
+
+    private ProductPage pageOf(List<Product> products, ProductCursor after, Integer limit) {
+        int size = pageSize(limit);
+        if (after.getSort() == ProductSort.RELEVANCE) {
+            int from = Math.min(after.getOffset(), products.size());
+            int to = Math.min(from + size, products.size());
+            String next = to < products.size() ? ProductCursor.atOffset(to).encode() : null;
+            return new ProductPage(products.subList(from, to), next);
+        }
+
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(after.getSort().comparator());
+        List<Product> page = new ArrayList<>(size);
+        boolean hasNext = false;
+        for (Product product : sorted) {
+            if (!after.precedes(product)) {
+                continue;
+            }
+            if (page.size() == size) {
+                hasNext = true;
+                break;
+            }
+            page.add(product);
+        }
+        String next = hasNext ? ProductCursor.after(after.getSort(), page.get(page.size() - 1)).encode() : null;
+        return new ProductPage(page, next);
+    }
+
+    private ProductPage pageFrom(List<Product> window, ProductCursor after, int size) {
+        if (window.size() <= size) {
+            return new ProductPage(window, null);
+        }
+        List<Product> page = window.subList(0, size);
+        String next = after.getSort() == ProductSort.RELEVANCE
+                ? ProductCursor.atOffset(after.getOffset() + size).encode()
+                : ProductCursor.after(after.getSort(), page.get(size - 1)).encode();
+        return new ProductPage(page, next);
+    }
+
+    private List<Product> productsAt(CatalogSnapshot snapshot, int from, int to) {
+        PriceIndex index = snapshot.getPriceIndex();
+        List<Product> products = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            snapshot.findProduct(index.idAt(i)).ifPresent(products::add);
+        }
+        return products;
+    }
+
+    private ProductPage pricePage(CatalogSnapshot snapshot, int from, int to, int size) {
+        PriceIndex index = snapshot.getPriceIndex();
+        List<Product> page = new ArrayList<>(Math.max(0, Math.min(size, to - from)));
+        int i = from;
+        for (; i < to && page.size() < size; i++) {
+            snapshot.findProduct(index.idAt(i)).ifPresent(page::add);
+        }
+        String next = i < to && !page.isEmpty()
+                ? ProductCursor.after(ProductSort.PRICE, page.get(page.size() - 1)).encode()
+                : null;
+        return new ProductPage(page, next);
     }
 
-    public List<Product> searchProducts(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+    private ProductPage toPage(Slice<Product> slice, ProductSort sort) {
+        List<Product> products = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !products.isEmpty()) {
+            next = ProductCursor.after(sort, products.get(products.size() - 1)).encode();
+        }
+        return new ProductPage(products, next);
     }
 
     public Product createProduct(String name, String description, BigDecimal price, Long categoryId) {
@@ -45,18 +382,31 @@ public class ProductService {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new RuntimeException("Категория не найдена"));
         product.setCategory(category);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
 
-    public Product updateProduct(Long id, String name, String description, BigDecimal price) {
+    @Transactional
+    @RetryOnConflict
+    public Product updateProduct(Long id, String name, String description, BigDecimal price, Long categoryId) {
         Product product = getProductById(id);
         product.setName(name);
         product.setDescription(description);
         product.setPrice(price);
-        return productRepository.save(product);
+        if (categoryId != null && (product.getCategory() == null
+                || !categoryId.equals(product.getCategory().getId()))) {
+            product.setCategory(getCategoryById(categoryId));
+        }
+        Product saved = productRepository.saveAndFlush(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
 
     public List<Category> getAllCategories() {
+        if (catalogReadModel.isReady()) {
+            return catalogReadModel.current().getCategories();
+        }
         return categoryRepository.findAll();
     }
 
@@ -67,6 +417,7 @@ public class ProductService {
 
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     public long getTotalProducts() {
@@ -0,0 +1,31 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Product;
+
+import java.util.Comparator;
+
+public enum ProductSort {
+    ID,
+    PRICE,
+    NAME,
+    RELEVANCE;
+
+    public static ProductSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        try {
+            return ProductSort.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректная сортировка: " + value);
+        }
+    }
+
+    public Comparator<Product> comparator() {
+        return switch (this) {
+            case PRICE -> Comparator.comparing(Product::getPrice).thenComparing(Product::getId);
+            case NAME -> Comparator.comparing(Product::getName).thenComparing(Product::getId);
+            case ID, RELEVANCE -> Comparator.comparing(Product::getId);
+        };
+    }
+}
@@ -0,0 +1,10 @@
+-- Hibernate reserves ids in blocks of 50. Native inserts (order_items copyFromCart, the cart_items upsert,
+-- COPY product imports) call nextval once per row and so consume a whole block of 50 ids per row.
+CREATE SEQUENCE IF NOT EXISTS products_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS cart_items_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE cart_items_id_seq INCREMENT BY 50;
@@ -0,0 +1,117 @@
+package com.example.ecommerce.cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GuestCartTokenTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final GuestCartToken guestCartToken = new GuestCartToken();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(guestCartToken, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(guestCartToken, "ttl", Duration.ofDays(30));
+        ReflectionTestUtils.setField(guestCartToken, "maxItems", 3);
+    }
+
+    @Test
+    void roundTripKeepsItemsInOrder() {
+        Map<Long, Integer> items = new LinkedHashMap<>();
+        items.put(300L, 1);
+        items.put(7L, 2);
+        items.put(1L << 40, 1000);
+
+        Map<Long, Integer> decoded = guestCartToken.decode(guestCartToken.encode(items));
+
+        assertThat(decoded).containsExactlyEntriesOf(items);
+    }
+
+    @Test
+    void emptyTokenIsEmptyCart() {
+        assertThat(guestCartToken.decode(null)).isEmpty();
+        assertThat(guestCartToken.decode(" ")).isEmpty();
+    }
+
+    @Test
+    void rejectsTamperedMac() {
+        byte[] bytes = Base64.getUrlDecoder().decode(guestCartToken.encode(Map.of(5L, 1)));
+        bytes[bytes.length - 1] ^= 1;
+
+        assertThatThrownBy(() -> guestCartToken.decode(encode(bytes)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Недействительная корзина гостя");
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        byte[] bytes = Base64.getUrlDecoder().decode(guestCartToken.encode(Map.of(5L, 1)));
+        bytes[bytes.length - 17] = 9;
+
+        assertThatThrownBy(() -> guestCartToken.decode(encode(bytes)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Недействительная корзина гостя");
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        ReflectionTestUtils.setField(guestCartToken, "ttl", Duration.ofMinutes(-5));
+        String token = guestCartToken.encode(Map.of(5L, 1));
+
+        assertThatThrownBy(() -> guestCartToken.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Срок действия корзины гостя истек");
+    }
+
+    @Test
+    void rejectsTruncatedVarint() {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        payload.write(1);
+        writeVarint(payload, (System.currentTimeMillis() + Duration.ofDays(1).toMillis()) / 60_000);
+        writeVarint(payload, 1);
+        payload.write(0x85);
+
+        assertThatThrownBy(() -> guestCartToken.decode(signed(payload.toByteArray())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Недействительная корзина гостя");
+    }
+
+    @Test
+    void rejectsTooManyItems() {
+        Map<Long, Integer> items = Map.of(1L, 1, 2L, 1, 3L, 1, 4L, 1);
+
+        assertThatThrownBy(() -> guestCartToken.encode(items))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String signed(byte[] payload) {
+        byte[] mac = ReflectionTestUtils.invokeMethod(guestCartToken, "sign", (Object) payload);
+        byte[] token = Arrays.copyOf(payload, payload.length + 16);
+        System.arraycopy(mac, 0, token, payload.length, 16);
+        return encode(token);
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
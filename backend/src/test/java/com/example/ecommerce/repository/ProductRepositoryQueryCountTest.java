@@ -0,0 +1,103 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductRepositoryQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Category electronics;
+
+    @BeforeEach
+    void setUp() {
+        electronics = entityManager.persist(new Category("Электроника"));
+        Category books = entityManager.persist(new Category("Книги"));
+        Category sport = entityManager.persist(new Category("Спорт"));
+        entityManager.persist(new Product("Смартфон", "Смартфон с камерой", new BigDecimal("29990"), electronics));
+        entityManager.persist(new Product("Ноутбук", "Ноутбук для работы", new BigDecimal("59990"), electronics));
+        entityManager.persist(new Product("Книга", "Книга по программированию", new BigDecimal("790"), books));
+        entityManager.persist(new Product("Велосипед", "Горный велосипед", new BigDecimal("12990"), sport));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllLoadsCategoriesInOneStatement() {
+        assertSingleStatement(() -> productRepository.findAll());
+    }
+
+    @Test
+    void findByIdLoadsCategoryInOneStatement() {
+        Long id = productRepository.findAll().get(0).getId();
+        entityManager.clear();
+
+        assertSingleStatement(() -> List.of(productRepository.findById(id).orElseThrow()));
+    }
+
+    @Test
+    void findAllByIdLoadsCategoriesInOneStatement() {
+        List<Long> ids = productRepository.findAll().stream().map(Product::getId).toList();
+
+        assertSingleStatement(() -> productRepository.findAllById(ids));
+    }
+
+    @Test
+    void filteredListsLoadCategoriesInOneStatement() {
+        assertSingleStatement(() -> productRepository.findByCategory(electronics));
+        assertSingleStatement(() -> productRepository.findByNameContainingIgnoreCase("кни"));
+        assertSingleStatement(() -> productRepository.findByPriceBetween(
+                new BigDecimal("500"), new BigDecimal("30000")));
+    }
+
+    @Test
+    void keysetSlicesLoadCategoriesInOneStatement() {
+        PageRequest page = PageRequest.of(0, 2);
+
+        assertSingleStatement(() -> slice(productRepository.findSliceById(0L, page)));
+        assertSingleStatement(() -> slice(productRepository.findSliceByPrice(new BigDecimal("-1"), 0L, page)));
+        assertSingleStatement(() -> slice(productRepository.findSliceByName("", 0L, page)));
+        assertSingleStatement(() -> slice(productRepository.findCategorySliceById(electronics.getId(), 0L, page)));
+        assertSingleStatement(() -> slice(productRepository.searchSliceById("о", 0L, page)));
+    }
+
+    private List<Product> slice(Slice<Product> slice) {
+        return slice.getContent();
+    }
+
+    private void assertSingleStatement(Supplier<List<Product>> query) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Product> products = query.get();
+        products.forEach(product -> product.getCategory().getName());
+
+        assertThat(products).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex();
+    private final List<Category> categories = new ArrayList<>();
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Category laptops = category(1L, "Ноутбуки");
+        Category phones = category(2L, "Телефоны");
+        product(10L, "Ноутбук Lenovo", laptops);
+        product(11L, "Ноутбук Asus", laptops);
+        product(12L, "Ноутбук Acer", laptops);
+        product(20L, "Телефон Nokia", phones);
+        product(30L, "Наушники Sony", null);
+        product(31L, "Ноутбучная сумка", null);
+        index.rebuild(categories, products);
+    }
+
+    @Test
+    void prefixMatchesRankHeavierEntriesFirst() {
+        assertThat(texts(index.suggest("ноут", 10)))
+                .containsExactly("Ноутбуки", "Ноутбук Acer", "Ноутбук Asus", "Ноутбук Lenovo", "Ноутбучная сумка");
+    }
+
+    @Test
+    void prefixMatchesComeBeforeFuzzyMatches() {
+        assertThat(texts(index.suggest("нау", 10))).containsExactly("Наушники Sony");
+        assertThat(texts(index.suggest("наушн", 10))).first().isEqualTo("Наушники Sony");
+    }
+
+    @Test
+    void matchesWordsInsideNames() {
+        assertThat(texts(index.suggest("nokia", 10))).containsExactly("Телефон Nokia");
+    }
+
+    @Test
+    void toleratesSingleSubstitutionDeletionAndTransposition() {
+        assertThat(texts(index.suggest("ноитбук", 10))).contains("Ноутбук Lenovo");
+        assertThat(texts(index.suggest("нотбук", 10))).contains("Ноутбук Lenovo");
+        assertThat(texts(index.suggest("нуотбук", 10))).contains("Ноутбук Lenovo");
+        assertThat(texts(index.suggest("lenvo", 10))).containsExactly("Ноутбук Lenovo");
+    }
+
+    @Test
+    void closerMatchesRankFirst() {
+        assertThat(texts(index.suggest("телфон", 10))).containsExactly("Телефоны", "Телефон Nokia");
+        assertThat(texts(index.suggest("ноутбуч", 10))).first().isEqualTo("Ноутбучная сумка");
+    }
+
+    @Test
+    void rejectsMatchesBeyondEditBudget() {
+        assertThat(index.suggest("тлфн", 10)).isEmpty();
+        assertThat(index.suggest("lnv", 10)).isEmpty();
+        assertThat(index.suggest("ноутсумка", 10)).isEmpty();
+    }
+
+    @Test
+    void shortQueriesAreNotFuzzy() {
+        assertThat(index.suggest("нок", 10)).isEmpty();
+        assertThat(texts(index.suggest("sny", 10))).isEmpty();
+        assertThat(texts(index.suggest("sony", 10))).containsExactly("Наушники Sony");
+    }
+
+    @Test
+    void respectsLimit() {
+        assertThat(index.suggest("ноут", 2)).hasSize(2);
+    }
+
+    private Category category(Long id, String name) {
+        Category category = new Category(name);
+        category.setId(id);
+        categories.add(category);
+        return category;
+    }
+
+    private void product(Long id, String name, Category category) {
+        Product product = new Product(name, name, BigDecimal.TEN, category);
+        product.setId(id);
+        products.add(product);
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        List<String> texts = new ArrayList<>();
+        for (Suggestion suggestion : suggestions) {
+            texts.add(suggestion.getText());
+        }
+        return texts;
+    }
+}
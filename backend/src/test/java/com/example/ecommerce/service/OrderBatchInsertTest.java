@@ -0,0 +1,88 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Category;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderItem;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(OrderService.class)
+class OrderBatchInsertTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockBean
+    private CartService cartService;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("buyer", "buyer@example.com", "secret"));
+        category = entityManager.persist(new Category("Электроника"));
+        entityManager.flush();
+    }
+
+    @Test
+    void reorderRoundTripsDoNotGrowWithOrderLines() {
+        long smallOrder = placeOrder(2);
+        long largeOrder = placeOrder(40);
+        reorder(placeOrder(1));
+
+        long smallStatements = reorder(smallOrder).getPrepareStatementCount();
+        Statistics large = reorder(largeOrder);
+
+        assertThat(large.getEntityInsertCount()).isEqualTo(41);
+        assertThat(large.getPrepareStatementCount()).isLessThanOrEqualTo(smallStatements + 1);
+        assertThat(large.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    private Statistics reorder(long orderId) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Order order = orderService.reorder(orderId, user.getId());
+        entityManager.flush();
+        assertThat(order.getId()).isNotNull();
+        return statistics;
+    }
+
+    private long placeOrder(int lines) {
+        Order order = new Order(entityManager.find(User.class, user.getId()));
+        Set<OrderItem> items = new HashSet<>();
+        for (int i = 0; i < lines; i++) {
+            Product product = entityManager.persist(new Product("Товар " + lines + "-" + i, "Описание",
+                    new BigDecimal("100.00"), entityManager.find(Category.class, category.getId())));
+            items.add(new OrderItem(order, product, 1));
+        }
+        order.setOrderItems(items);
+        entityManager.persist(order);
+        entityManager.flush();
+        return order.getId();
+    }
+}
@@ -7,7 +7,7 @@ CREATE TABLE cart_items (
 
 CREATE SEQUENCE cart_items_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1;
@@ -45,7 +45,7 @@ CREATE TABLE order_items (
 
 CREATE SEQUENCE order_items_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1;
@@ -65,7 +65,7 @@ CREATE TABLE orders (
 
 CREATE SEQUENCE orders_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1;
@@ -80,7 +80,7 @@ CREATE TABLE products (
 
 CREATE SEQUENCE products_id_seq
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NO MINVALUE
     NO MAXVALUE
     CACHE 1;
@@ -106,11 +106,19 @@ const AdminPanel = () => {
     const fetchProducts = async () => {
         try {
             setLoading(true);
-            const response = await axios.get(`${API_BASE_URL}/products`);
-
-            if (response.data.success) {
-                setProducts(response.data.products);
-            }
+            const loaded = [];
+            let cursor = null;
+            do {
+                const response = await axios.get(`${API_BASE_URL}/products`, {
+                    params: cursor ? { limit: 100, cursor } : { limit: 100 }
+                });
+                if (!response.data.success) {
+                    break;
+                }
+                loaded.push(...response.data.products);
+                cursor = response.data.next || null;
+            } while (cursor);
+            setProducts(loaded);
         } catch (error) {
             console.error('Ошибка загрузки товаров:', error);
             setError(error.response?.data?.error || 'Ошибка загрузки');
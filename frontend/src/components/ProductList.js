@@ -4,11 +4,16 @@ import axios from 'axios';
 import {API_BASE_URL} from "../config";
 import './ProductList.css';
 
+const PAGE_LIMIT = 100;
+
 const ProductList = () => {
     const [products, setProducts] = useState([]);
     const [filteredProducts, setFilteredProducts] = useState([]);
     const [categories, setCategories] = useState([]);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [pageQuery, setPageQuery] = useState({ path: '/products', params: {} });
     const [error, setError] = useState(null);
 
     const [searchTerm, setSearchTerm] = useState('');
@@ -34,7 +39,7 @@ const ProductList = () => {
             setLoading(true);
             setError(null);
 
-            const response = await axios.get(`${API_BASE_URL}/products`);
+            const response = await axios.get(`${API_BASE_URL}/products`, { params: { limit: PAGE_LIMIT } });
 
             if (!response.data.success) {
                 throw new Error(response.data.error || 'Ошибка загрузки товаров');
@@ -42,6 +47,8 @@ const ProductList = () => {
 
             setProducts(response.data.products || []);
             setFilteredProducts(response.data.products || []);
+            setNextCursor(response.data.next || null);
+            setPageQuery({ path: '/products', params: {} });
 
             if (response.data.products && response.data.products.length > 0) {
                 const maxPrice = Math.max(...response.data.products.map(p => p.price));
@@ -53,11 +60,44 @@ const ProductList = () => {
             setError(error.response?.data?.error || error.message || 'Ошибка загрузки товаров');
             setProducts([]);
             setFilteredProducts([]);
+            setNextCursor(null);
         } finally {
             setLoading(false);
         }
     };
 
+    const loadMoreProducts = async () => {
+        if (!nextCursor) {
+            return;
+        }
+
+        try {
+            setLoadingMore(true);
+            const response = await axios.get(`${API_BASE_URL}${pageQuery.path}`, {
+                params: { ...pageQuery.params, limit: PAGE_LIMIT, cursor: nextCursor }
+            });
+
+            if (!response.data.success) {
+                throw new Error(response.data.error || 'Ошибка загрузки товаров');
+            }
+
+            const loaded = [...products, ...(response.data.products || [])];
+            setProducts(loaded);
+            setNextCursor(response.data.next || null);
+
+            if (loaded.length > 0) {
+                const maxPrice = Math.max(...loaded.map(p => p.price));
+                setPriceRange(prev => ({ ...prev, max: Math.max(prev.max, Math.ceil(maxPrice)) }));
+            }
+
+        } catch (error) {
+            console.error('Ошибка загрузки товаров:', error);
+            alert(error.response?.data?.error || error.message || 'Ошибка загрузки товаров');
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const fetchCategories = async () => {
         try {
             const response = await axios.get(`${API_BASE_URL}/products/categories`);
@@ -157,13 +197,18 @@ const ProductList = () => {
 
         try {
             setLoading(true);
-            const response = await axios.get(`${API_BASE_URL}/products/search?name=${searchTerm}`);
+            const params = { name: searchTerm };
+            const response = await axios.get(`${API_BASE_URL}/products/search`, {
+                params: { ...params, limit: PAGE_LIMIT }
+            });
 
             if (!response.data.success) {
                 throw new Error(response.data.error || 'Ошибка поиска');
             }
 
             setProducts(response.data.products || []);
+            setNextCursor(response.data.next || null);
+            setPageQuery({ path: '/products/search', params });
 
         } catch (error) {
             console.error('Ошибка поиска:', error);
@@ -181,13 +226,16 @@ const ProductList = () => {
 
         try {
             setLoading(true);
-            const response = await axios.get(`${API_BASE_URL}/products/category/${categoryId}`);
+            const path = `/products/category/${categoryId}`;
+            const response = await axios.get(`${API_BASE_URL}${path}`, { params: { limit: PAGE_LIMIT } });
 
             if (!response.data.success) {
                 throw new Error(response.data.error || 'Ошибка фильтрации');
             }
 
             setProducts(response.data.products || []);
+            setNextCursor(response.data.next || null);
+            setPageQuery({ path, params: {} });
 
         } catch (error) {
             console.error('Ошибка фильтрации по категории:', error);
@@ -483,6 +531,16 @@ const ProductList = () => {
 
                     {totalPages > 1 && renderPagination()}
 
+                    {nextCursor && (
+                        <button
+                            onClick={loadMoreProducts}
+                            disabled={loadingMore}
+                            className="load-more-btn"
+                        >
+                            {loadingMore ? 'Загрузка...' : 'Показать ещё товары'}
+                        </button>
+                    )}
+
                     <div className="products-summary">
                         <p>
                             Показано {currentProducts.length} из {filteredProducts.length} товаров